@@ -0,0 +1,49 @@
+package com.kpabk.kpabk_connect.cart.controller;
+
+import com.kpabk.kpabk_connect.auth.model.User;
+import com.kpabk.kpabk_connect.auth.repository.UserRepository;
+import com.kpabk.kpabk_connect.cart.service.CartCheckoutService;
+import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.product.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Cart checkout: places an order from the current user's cart. Kept apart from {@link CartController} so that the
+ * order exception handler, which maps placement errors, applies to this endpoint only.
+ */
+@RestController
+@RequestMapping("/api/cart")
+@RequiredArgsConstructor
+public class CartCheckoutController {
+
+    private final CartCheckoutService cartCheckoutService;
+    private final UserRepository userRepository;
+
+    /**
+     * Places an order at the given outlet from the current user's cart and empties the cart.
+     */
+    @PostMapping("/checkout")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<OrderResponse>> checkout(
+            @RequestParam Long outletId,
+            Authentication authentication
+    ) {
+        Long currentUserId = resolveCurrentUserId(authentication);
+        OrderResponse order = cartCheckoutService.checkout(currentUserId, outletId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Order placed", order));
+    }
+
+    private Long resolveCurrentUserId(Authentication authentication) {
+        return java.util.Optional.ofNullable(authentication)
+                .filter(Authentication::isAuthenticated)
+                .map(Authentication::getName)
+                .flatMap(userRepository::findByEmail)
+                .map(User::getId)
+                .orElseThrow(() -> new IllegalStateException("Current user not found"));
+    }
+}
@@ -2,6 +2,9 @@ package com.kpabk.kpabk_connect.cart.repository;
 
 import com.kpabk.kpabk_connect.cart.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,5 +22,13 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 
     boolean existsByUser_IdAndProduct_Id(Long userId, UUID productId);
 
-    void deleteByUser_Id(Long userId);
+    /** Cart lines with product and category, in one query (checkout). */
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product p JOIN FETCH p.category "
+            + "WHERE ci.user.id = :userId ORDER BY ci.createdAt")
+    List<CartItem> findWithProductByUserId(@Param("userId") Long userId);
+
+    /** Single DELETE statement (the derived version loads and deletes each item). */
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.user.id = :userId")
+    int deleteByUser_Id(@Param("userId") Long userId);
 }
@@ -0,0 +1,51 @@
+package com.kpabk.kpabk_connect.cart.service;
+
+import com.kpabk.kpabk_connect.cart.model.CartItem;
+import com.kpabk.kpabk_connect.cart.repository.CartItemRepository;
+import com.kpabk.kpabk_connect.order.dto.CreateOrderRequest;
+import com.kpabk.kpabk_connect.order.dto.OrderItemRequest;
+import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.order.exception.OrderValidationException;
+import com.kpabk.kpabk_connect.order.service.OrderService;
+import com.kpabk.kpabk_connect.product.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Converts the user's server-side cart into an order in one transaction: one query loads the cart with products,
+ * the order is placed from those products (no second lookup), and the cart is cleared with a single DELETE.
+ * If placement fails (validation, stock), nothing changes and the cart is kept.
+ */
+@Service
+@RequiredArgsConstructor
+public class CartCheckoutService {
+
+    private final CartItemRepository cartItemRepository;
+    private final OrderService orderService;
+    private final ProductService productService;
+
+    @Transactional
+    public OrderResponse checkout(Long userId, Long outletId) {
+        List<CartItem> cartItems = cartItemRepository.findWithProductByUserId(userId);
+        if (cartItems.isEmpty()) {
+            throw new OrderValidationException("Cart is empty");
+        }
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .outletId(outletId)
+                .customerId(userId)
+                .items(cartItems.stream()
+                        .map(item -> OrderItemRequest.builder()
+                                .productId(item.getProduct().getId())
+                                .quantity(item.getQuantity())
+                                .build())
+                        .toList())
+                .build();
+        OrderResponse order = orderService.placeOrder(request,
+                productService.toResponses(cartItems.stream().map(CartItem::getProduct).toList()));
+        cartItemRepository.deleteByUser_Id(userId);
+        return order;
+    }
+}
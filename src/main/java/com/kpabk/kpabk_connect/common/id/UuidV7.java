@@ -0,0 +1,19 @@
+package com.kpabk.kpabk_connect.common.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UUID id attribute to be assigned a time-ordered UUIDv7 (RFC 9562) before insert.
+ * Use instead of {@code @GeneratedValue(strategy = GenerationType.UUID)} on high-insert tables so new rows
+ * land at the right-hand edge of the primary key index instead of at random positions.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
@@ -0,0 +1,63 @@
+package com.kpabk.kpabk_connect.common.lease;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Database leases for singleton background jobs. A job calls {@link #tryAcquire} at the start of every run; the
+ * node holding the lease keeps renewing it, and another node takes over once it expires (node crashed or stopped).
+ * Each acquire is its own short transaction, so no lock is held while the job runs.
+ */
+@Service
+@Slf4j
+public class LeaseService {
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate newTransaction;
+    private final String owner;
+
+    public LeaseService(SchedulerLeaseRepository leaseRepository, PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * @return true if this node holds the lease {@code name} for the next {@code ttl}
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        try {
+            Integer taken = newTransaction.execute(tx -> leaseRepository.tryTake(name, owner, expiresAt, now));
+            if (taken != null && taken > 0) {
+                return true;
+            }
+            if (Boolean.TRUE.equals(newTransaction.execute(tx -> leaseRepository.existsById(name)))) {
+                return false;
+            }
+            newTransaction.executeWithoutResult(tx -> leaseRepository.insert(name, owner, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease row first
+            return false;
+        } catch (RuntimeException e) {
+            log.warn("Could not acquire lease {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
@@ -0,0 +1,26 @@
+package com.kpabk.kpabk_connect.common.lease;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /** Takes or renews the lease if it is free, expired or already ours; 1 on success. */
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.expiresAt = :expiresAt "
+            + "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int tryTake(@Param("name") String name, @Param("owner") String owner,
+                @Param("expiresAt") Instant expiresAt, @Param("now") Instant now);
+
+    /** Plain INSERT (not merge) so that a concurrent creator fails on the primary key instead of being overwritten. */
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (name, owner, expires_at) VALUES (:name, :owner, :expiresAt)",
+            nativeQuery = true)
+    int insert(@Param("name") String name, @Param("owner") String owner, @Param("expiresAt") Instant expiresAt);
+}
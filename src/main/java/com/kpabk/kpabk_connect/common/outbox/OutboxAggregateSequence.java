@@ -0,0 +1,36 @@
+package com.kpabk.kpabk_connect.common.outbox;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Last outbox sequence number handed out per aggregate. Publishers increment it under the row lock, which is held
+ * until they commit, so the sequence numbers of one aggregate are taken and committed in the same order.
+ */
+@Schema(hidden = true)
+@Entity
+@Table(name = "outbox_aggregate_sequences",
+    uniqueConstraints = @UniqueConstraint(name = "uq_outbox_aggregate_sequence",
+        columnNames = {"aggregate_type", "aggregate_id"})
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxAggregateSequence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 64)
+    private String aggregateId;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+}
@@ -0,0 +1,21 @@
+package com.kpabk.kpabk_connect.common.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxAggregateSequenceRepository extends JpaRepository<OutboxAggregateSequence, Long> {
+
+    /** Takes the next number and locks the row until commit; returns 0 when the aggregate has no row yet. */
+    @Modifying
+    @Query("UPDATE OutboxAggregateSequence s SET s.lastSequence = s.lastSequence + 1 "
+            + "WHERE s.aggregateType = :aggregateType AND s.aggregateId = :aggregateId")
+    int increment(@Param("aggregateType") String aggregateType, @Param("aggregateId") String aggregateId);
+
+    @Query("SELECT s.lastSequence FROM OutboxAggregateSequence s "
+            + "WHERE s.aggregateType = :aggregateType AND s.aggregateId = :aggregateId")
+    long findLastSequence(@Param("aggregateType") String aggregateType, @Param("aggregateId") String aggregateId);
+}
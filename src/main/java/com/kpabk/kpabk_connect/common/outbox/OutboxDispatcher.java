@@ -0,0 +1,161 @@
+package com.kpabk.kpabk_connect.common.outbox;
+
+import com.kpabk.kpabk_connect.common.lease.LeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the outbox to the registered {@link OutboxEventHandler}s.
+ * <p>
+ * Runs on the node holding the {@value #LEASE_NAME} lease, so one dispatcher delivers events. Each batch holds the
+ * due head (first pending event by aggregate sequence) of each aggregate: an event waiting for a retry blocks later
+ * events of its own aggregate only, which keeps per-aggregate commit order. A failed event is retried with
+ * exponential backoff and becomes DEAD after {@code outbox.max-attempts}.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    static final String LEASE_NAME = "outbox-dispatcher";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxProperties properties;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, OutboxEventHandler> handlers = new HashMap<>();
+
+    public OutboxDispatcher(
+            OutboxEventRepository outboxEventRepository,
+            OutboxProperties properties,
+            LeaseService leaseService,
+            PlatformTransactionManager transactionManager,
+            List<OutboxEventHandler> handlers
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.properties = properties;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (OutboxEventHandler handler : handlers) {
+            if (this.handlers.putIfAbsent(handler.eventType(), handler) != null) {
+                throw new IllegalStateException("Duplicate outbox handler for event type " + handler.eventType());
+            }
+        }
+    }
+
+    /** Pending / dead counts and the age of the oldest pending event. */
+    public record Backlog(long pending, long dead, Duration oldestPendingAge) {
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        while (leaseService.tryAcquire(LEASE_NAME, properties.getLeaseTtl()) && dispatchBatch()) {
+            // keep draining while batches make progress
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval:PT1H}")
+    public void purgeProcessed() {
+        if (!leaseService.tryAcquire(LEASE_NAME, properties.getLeaseTtl())) {
+            return;
+        }
+        Instant before = Instant.now().minus(properties.getRetention());
+        Integer removed = transactionTemplate.execute(tx ->
+                outboxEventRepository.deleteProcessedBefore(OutboxEventStatus.PROCESSED, before));
+        if (removed != null && removed > 0) {
+            log.debug("Purged {} processed outbox events", removed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.backlog-report-interval:PT1M}")
+    public void reportBacklog() {
+        Backlog backlog = backlog();
+        if (backlog.pending() > properties.getBacklogWarnThreshold()) {
+            log.warn("Outbox backlog: {} pending (oldest {}s), {} dead",
+                    backlog.pending(), backlog.oldestPendingAge().toSeconds(), backlog.dead());
+        }
+    }
+
+    public Backlog backlog() {
+        Instant oldest = outboxEventRepository.findOldestCreatedAt(OutboxEventStatus.PENDING);
+        return new Backlog(
+                outboxEventRepository.countByStatus(OutboxEventStatus.PENDING),
+                outboxEventRepository.countByStatus(OutboxEventStatus.DEAD),
+                oldest != null ? Duration.between(oldest, Instant.now()) : Duration.ZERO);
+    }
+
+    /** @return true if something was delivered (the next events of those aggregates may now be due) */
+    private boolean dispatchBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findDueAggregateHeads(
+                OutboxEventStatus.PENDING, Instant.now(), PageRequest.ofSize(properties.getBatchSize()));
+        int delivered = 0;
+        for (OutboxEvent event : batch) {
+            if (deliver(event)) {
+                delivered++;
+            }
+        }
+        return delivered > 0;
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        try {
+            OutboxEventHandler handler = handlers.get(event.getEventType());
+            if (handler == null) {
+                throw new IllegalStateException("No outbox handler for event type " + event.getEventType());
+            }
+            transactionTemplate.executeWithoutResult(tx -> {
+                try {
+                    handler.handle(event);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+                outboxEventRepository.markProcessed(event.getId(), Instant.now(),
+                        OutboxEventStatus.PENDING, OutboxEventStatus.PROCESSED);
+            });
+            return true;
+        } catch (RuntimeException e) {
+            recordFailure(event, e);
+            return false;
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException error) {
+        int attempts = event.getAttempts() + 1;
+        boolean dead = attempts >= properties.getMaxAttempts();
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(properties.getMaxBackoff()) > 0) {
+            backoff = properties.getMaxBackoff();
+        }
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        Instant nextAttemptAt = Instant.now().plus(backoff);
+        String lastError = message;
+        try {
+            transactionTemplate.executeWithoutResult(tx -> outboxEventRepository.recordFailure(event.getId(), nextAttemptAt,
+                    lastError, dead ? OutboxEventStatus.DEAD : OutboxEventStatus.PENDING));
+        } catch (RuntimeException e) {
+            log.warn("Could not record failure of outbox event {}: {}", event.getId(), e.getMessage());
+        }
+        if (dead) {
+            log.error("Outbox event {} ({} {}) is dead after {} attempts: {}",
+                    event.getId(), event.getEventType(), event.getAggregateId(), attempts, message);
+        } else {
+            log.warn("Outbox event {} ({}) failed (attempt {}), retry in {}s: {}",
+                    event.getId(), event.getEventType(), attempts, backoff.toSeconds(), message);
+        }
+    }
+}
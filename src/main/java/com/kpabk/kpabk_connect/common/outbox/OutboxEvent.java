@@ -0,0 +1,71 @@
+package com.kpabk.kpabk_connect.common.outbox;
+
+import com.kpabk.kpabk_connect.common.id.UuidV7;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Transactional outbox row: written in the same transaction as the state change it describes, delivered afterwards
+ * by {@link OutboxDispatcher}. The aggregate sequence gives the delivery order within an aggregate; it is taken under
+ * a lock held until commit (see {@link OutboxPublisher}), so unlike the id it follows commit order.
+ */
+@Schema(hidden = true)
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_status_id", columnList = "status, id"),
+    @Index(name = "idx_outbox_aggregate", columnList = "aggregate_type, aggregate_id, aggregate_sequence")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 64)
+    private String aggregateId;
+
+    /** Position of the event within its aggregate; see {@link OutboxAggregateSequence}. */
+    @Column(name = "aggregate_sequence", nullable = false)
+    private Long aggregateSequence;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private OutboxEventStatus status = OutboxEventStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /** Earliest time of the next delivery attempt (backoff after a failure). */
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+}
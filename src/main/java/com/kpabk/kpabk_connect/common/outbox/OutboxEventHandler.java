@@ -0,0 +1,15 @@
+package com.kpabk.kpabk_connect.common.outbox;
+
+/**
+ * In-process consumer of one outbox event type. Handlers are registered as Spring beans.
+ * <p>
+ * Delivery is at-least-once: {@link #handle} runs in a transaction that also marks the event processed, so database
+ * effects commit exactly once, but a handler with external side effects may see the same event again after a crash.
+ * Throwing schedules a retry with backoff; later events of the same aggregate wait until this one succeeds.
+ */
+public interface OutboxEventHandler {
+
+    String eventType();
+
+    void handle(OutboxEvent event) throws Exception;
+}
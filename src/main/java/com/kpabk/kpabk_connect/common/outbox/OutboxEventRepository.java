@@ -0,0 +1,47 @@
+package com.kpabk.kpabk_connect.common.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Due PENDING events that are the first PENDING event of their aggregate by aggregate sequence, in id order. A
+     * later event of an aggregate is not returned while an earlier one is still pending (e.g. in retry backoff).
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :pending AND e.nextAttemptAt <= :now "
+            + "AND NOT EXISTS (SELECT 1 FROM OutboxEvent p WHERE p.aggregateType = e.aggregateType "
+            + "AND p.aggregateId = e.aggregateId AND p.status = :pending AND p.aggregateSequence < e.aggregateSequence) "
+            + "ORDER BY e.id")
+    List<OutboxEvent> findDueAggregateHeads(@Param("pending") OutboxEventStatus pending, @Param("now") Instant now,
+                                            Pageable limit);
+
+    long countByStatus(OutboxEventStatus status);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = :status")
+    Instant findOldestCreatedAt(@Param("status") OutboxEventStatus status);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :processed, e.processedAt = :now WHERE e.id = :id AND e.status = :pending")
+    int markProcessed(@Param("id") UUID id, @Param("now") Instant now,
+                      @Param("pending") OutboxEventStatus pending, @Param("processed") OutboxEventStatus processed);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, "
+            + "e.lastError = :error, e.status = :status WHERE e.id = :id")
+    int recordFailure(@Param("id") UUID id, @Param("nextAttemptAt") Instant nextAttemptAt,
+                      @Param("error") String error, @Param("status") OutboxEventStatus status);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :processed AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("processed") OutboxEventStatus processed, @Param("before") Instant before);
+}
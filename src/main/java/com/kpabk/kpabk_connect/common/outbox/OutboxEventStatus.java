@@ -0,0 +1,10 @@
+package com.kpabk.kpabk_connect.common.outbox;
+
+/**
+ * PENDING until a handler succeeded (PROCESSED) or retries ran out (DEAD; no longer blocks its aggregate).
+ */
+public enum OutboxEventStatus {
+    PENDING,
+    PROCESSED,
+    DEAD
+}
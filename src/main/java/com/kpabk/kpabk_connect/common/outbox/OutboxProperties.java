@@ -0,0 +1,31 @@
+package com.kpabk.kpabk_connect.common.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Outbox dispatcher settings. Values from application.yaml (outbox.*).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    /** Events loaded per dispatcher pass. */
+    private int batchSize = 100;
+    /** Attempts before an event is marked DEAD. */
+    private int maxAttempts = 10;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(5);
+    /** How long PROCESSED rows are kept. */
+    private Duration retention = Duration.ofDays(7);
+    /** Dispatcher lease; only the holder dispatches, which keeps per-aggregate order across nodes. */
+    private Duration leaseTtl = Duration.ofSeconds(30);
+    /** Pending backlog above which a warning is logged. */
+    private long backlogWarnThreshold = 1_000;
+}
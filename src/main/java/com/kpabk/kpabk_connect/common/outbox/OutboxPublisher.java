@@ -0,0 +1,108 @@
+package com.kpabk.kpabk_connect.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Instant;
+
+/**
+ * Appends events to the outbox inside the caller's transaction, so an event exists if and only if the change commits.
+ * <p>
+ * Each event takes the next number of its aggregate's sequence row. The row stays locked until the caller commits,
+ * so a second publisher of the same aggregate waits and its event is numbered, and committed, after the first.
+ */
+@Component
+public class OutboxPublisher {
+
+    /** Standard SQLSTATE for a unique key violation (H2, PostgreSQL). */
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String INSERT_SEQUENCE = "INSERT INTO outbox_aggregate_sequences "
+            + "(aggregate_type, aggregate_id, last_sequence) VALUES (?, ?, 1)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxAggregateSequenceRepository sequenceRepository;
+    private final ObjectMapper objectMapper;
+    /** Runs on the connection bound to the current transaction; failed statements do not mark it rollback-only. */
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxPublisher(
+            OutboxEventRepository outboxEventRepository,
+            OutboxAggregateSequenceRepository sequenceRepository,
+            ObjectMapper objectMapper,
+            DataSource dataSource
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sequenceRepository = sequenceRepository;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * @param payload serialized as JSON; keep it to ids, enums and strings
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String aggregateType, String aggregateId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload not serializable: " + eventType, e);
+        }
+        long sequence = nextSequence(aggregateType, aggregateId);
+        Instant now = Instant.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .aggregateSequence(sequence)
+                .eventType(eventType)
+                .payload(json)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    private long nextSequence(String aggregateType, String aggregateId) {
+        if (sequenceRepository.increment(aggregateType, aggregateId) == 0) {
+            Boolean created = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    insertFirstSequence(connection, aggregateType, aggregateId));
+            if (Boolean.TRUE.equals(created)) {
+                return 1;
+            }
+            // A concurrent first publisher created the row; its lock made us wait until it committed
+            if (sequenceRepository.increment(aggregateType, aggregateId) == 0) {
+                throw new IllegalStateException("Outbox sequence of " + aggregateType + " " + aggregateId
+                        + " rejected the insert but has no row");
+            }
+        }
+        return sequenceRepository.findLastSequence(aggregateType, aggregateId);
+    }
+
+    /** Inserts the sequence row behind a savepoint; returns false, with the insert undone, if the row already exists. */
+    private static boolean insertFirstSequence(Connection connection, String aggregateType, String aggregateId)
+            throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SEQUENCE)) {
+            insert.setString(1, aggregateType);
+            insert.setString(2, aggregateId);
+            insert.executeUpdate();
+        } catch (SQLException e) {
+            if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                throw e;
+            }
+            connection.rollback(savepoint);
+            return false;
+        }
+        connection.releaseSavepoint(savepoint);
+        return true;
+    }
+}
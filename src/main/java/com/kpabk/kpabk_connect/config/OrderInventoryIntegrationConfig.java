@@ -0,0 +1,42 @@
+package com.kpabk.kpabk_connect.config;
+
+import com.kpabk.kpabk_connect.order.exception.OutOfStockException;
+import com.kpabk.kpabk_connect.order.service.InventoryDeductionPort;
+import com.kpabk.kpabk_connect.product.service.OutletStockService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Wires Order module's inventory port to Product module's outlet stock (order.inventory.mode=reserve, the default).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "order.inventory", name = "mode", havingValue = "reserve", matchIfMissing = true)
+public class OrderInventoryIntegrationConfig {
+
+    @Bean
+    public InventoryDeductionPort inventoryDeductionPort(OutletStockService outletStockService) {
+        return new InventoryDeductionPort() {
+            @Override
+            public void deductForOrder(UUID orderId, Long outletId, Map<UUID, Integer> productQuantities) {
+                outletStockService.reserve(orderId, outletId, productQuantities).ifPresent(productId -> {
+                    throw new OutOfStockException(productId);
+                });
+            }
+
+            @Override
+            public void releaseForOrders(Collection<UUID> orderIds) {
+                outletStockService.release(orderIds);
+            }
+
+            @Override
+            public void discardForOrders(Collection<UUID> orderIds) {
+                outletStockService.discard(orderIds);
+            }
+        };
+    }
+}
@@ -1,8 +1,12 @@
 package com.kpabk.kpabk_connect.config;
 
-import com.kpabk.kpabk_connect.order.dto.OrderResponse;
-import com.kpabk.kpabk_connect.order.exception.OrderNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kpabk.kpabk_connect.common.outbox.OutboxEvent;
+import com.kpabk.kpabk_connect.common.outbox.OutboxEventHandler;
+import com.kpabk.kpabk_connect.common.outbox.OutboxPublisher;
 import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import com.kpabk.kpabk_connect.order.repository.OrderFacts;
+import com.kpabk.kpabk_connect.order.service.OrderFactsService;
 import com.kpabk.kpabk_connect.order.service.OrderService;
 import com.kpabk.kpabk_connect.payment.exception.OrderNotFoundForPaymentException;
 import com.kpabk.kpabk_connect.payment.port.OrderAmountPort;
@@ -18,43 +22,65 @@ import java.util.UUID;
 @Configuration
 public class PaymentOrderIntegrationConfig {
 
-    private static final String DEFAULT_CURRENCY = "INR";
+    static final String ORDER_AGGREGATE = "order";
+    static final String ORDER_PAYMENT_STATUS_EVENT = "order.payment-status-changed";
 
+    /** Served from the cached order-facts projection; no items are loaded. */
     @Bean
-    public OrderAmountPort orderAmountPort(OrderService orderService) {
+    public OrderAmountPort orderAmountPort(OrderFactsService orderFactsService) {
         return new OrderAmountPort() {
             @Override
             public java.math.BigDecimal getOrderAmount(UUID orderId) {
-                try {
-                    OrderResponse order = orderService.getById(orderId);
-                    return order.getTotalAmount();
-                } catch (OrderNotFoundException e) {
-                    throw new OrderNotFoundForPaymentException(orderId);
-                }
+                return facts(orderId).totalAmount();
             }
 
             @Override
             public String getOrderCurrency(UUID orderId) {
-                return DEFAULT_CURRENCY;
+                return facts(orderId).currency();
             }
 
             @Override
             public Long getOrderCustomerId(UUID orderId) {
-                try {
-                    OrderResponse order = orderService.getById(orderId);
-                    return order.getCustomerId();
-                } catch (OrderNotFoundException e) {
-                    return null;
-                }
+                return orderFactsService.find(orderId).map(OrderFacts::customerId).orElse(null);
+            }
+
+            private OrderFacts facts(UUID orderId) {
+                return orderFactsService.find(orderId)
+                        .orElseThrow(() -> new OrderNotFoundForPaymentException(orderId));
             }
         };
     }
 
+    /**
+     * Payment status changes are written to the outbox in the payment transaction and applied to the order by
+     * {@link #orderPaymentStatusHandler}, so webhook/refund transactions do not wait on the order update.
+     */
     @Bean
-    public OrderPaymentStatusPort orderPaymentStatusPort(OrderService orderService) {
+    public OrderPaymentStatusPort orderPaymentStatusPort(OutboxPublisher outboxPublisher) {
         return (orderId, paymentStatus) -> {
             PaymentStatus status = PaymentStatus.valueOf(paymentStatus);
-            orderService.updatePaymentStatus(orderId, status);
+            outboxPublisher.publish(ORDER_AGGREGATE, orderId.toString(), ORDER_PAYMENT_STATUS_EVENT,
+                    new OrderPaymentStatusChange(orderId, status.name()));
         };
     }
+
+    @Bean
+    public OutboxEventHandler orderPaymentStatusHandler(OrderService orderService, ObjectMapper objectMapper) {
+        return new OutboxEventHandler() {
+            @Override
+            public String eventType() {
+                return ORDER_PAYMENT_STATUS_EVENT;
+            }
+
+            @Override
+            public void handle(OutboxEvent event) throws Exception {
+                OrderPaymentStatusChange change = objectMapper.readValue(event.getPayload(), OrderPaymentStatusChange.class);
+                orderService.updatePaymentStatus(change.orderId(), PaymentStatus.valueOf(change.paymentStatus()));
+            }
+        };
+    }
+
+    /** Outbox payload of {@value #ORDER_PAYMENT_STATUS_EVENT}. */
+    public record OrderPaymentStatusChange(UUID orderId, String paymentStatus) {
+    }
 }
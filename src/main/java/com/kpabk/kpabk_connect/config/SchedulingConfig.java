@@ -0,0 +1,12 @@
+package com.kpabk.kpabk_connect.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (e.g. live order board heartbeats).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,27 @@
+package com.kpabk.kpabk_connect.order.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Archival of closed orders into orders_archive / order_items_archive. Values from application.yaml (order.archive.*).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "order.archive")
+public class OrderArchiveProperties {
+
+    private boolean enabled = true;
+    /** DELIVERED/CANCELLED orders not updated for this long are moved to the archive. */
+    private Duration age = Duration.ofDays(90);
+    /** Orders moved per transaction. */
+    private int batchSize = 500;
+    /** Upper bound per run, so one run cannot hold the lease indefinitely after a long outage. */
+    private int maxBatchesPerRun = 100;
+    private Duration leaseTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,27 @@
+package com.kpabk.kpabk_connect.order.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Auto-cancellation of abandoned (PENDING, UNPAID) orders. Values from application.yaml (order.auto-cancel.*).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "order.auto-cancel")
+public class OrderAutoCancelProperties {
+
+    private boolean enabled = true;
+    /** PENDING orders still UNPAID this long after creation are cancelled. */
+    private Duration ttl = Duration.ofHours(2);
+    /** Orders selected and cancelled per transaction. */
+    private int chunkSize = 200;
+    /** Upper bound per run; the rest is picked up by the next run. */
+    private int maxChunksPerRun = 50;
+    private Duration leaseTtl = Duration.ofMinutes(2);
+}
@@ -0,0 +1,31 @@
+package com.kpabk.kpabk_connect.order.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Live order board (SSE) limits. Values from application.yaml (order.events.*).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "order.events")
+public class OrderEventStreamProperties {
+
+    /** Connection lifetime; clients reconnect with Last-Event-ID afterwards. */
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+    /** Comment line sent to every connection so proxies keep idle streams open. */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    /** Events kept per outlet for Last-Event-ID resume. */
+    private int replaySize = 256;
+    /** Undelivered events queued per connection; a connection that falls further behind is closed. */
+    private int connectionBufferSize = 64;
+    /** Open streams allowed per outlet (tablets, dashboards). */
+    private int maxConnectionsPerOutlet = 20;
+    /** Threads that write queued events to connections; idle connections hold no thread. */
+    private int senderThreads = 4;
+}
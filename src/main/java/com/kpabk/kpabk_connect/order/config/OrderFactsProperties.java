@@ -0,0 +1,22 @@
+package com.kpabk.kpabk_connect.order.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache of order facts served to the payment module. Values from application.yaml (order.facts.*).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "order.facts")
+public class OrderFactsProperties {
+
+    private int cacheMaxEntries = 10_000;
+    /** Upper bound on staleness should an invalidation be missed (entries are also dropped on every order change). */
+    private Duration cacheTtl = Duration.ofMinutes(5);
+}
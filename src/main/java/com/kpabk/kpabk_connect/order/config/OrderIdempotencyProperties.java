@@ -0,0 +1,25 @@
+package com.kpabk.kpabk_connect.order.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling for order placement. Values from application.yaml (order.idempotency.*).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "order.idempotency")
+public class OrderIdempotencyProperties {
+
+    /** How long a key keeps returning the original order. */
+    private Duration ttl = Duration.ofHours(24);
+    /** An IN_PROGRESS claim older than this is considered abandoned (crashed node) and may be taken over. */
+    private Duration inFlightTimeout = Duration.ofMinutes(2);
+    /** Completed keys kept in memory in front of the table. */
+    private int cacheMaxEntries = 10_000;
+}
@@ -0,0 +1,25 @@
+package com.kpabk.kpabk_connect.order.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Order number configuration. Values from application.yaml (order.number.*).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "order.number")
+public class OrderNumberProperties {
+
+    /** Text placed in front of every generated number, e.g. ORD-. */
+    private String prefix = "ORD-";
+
+    /**
+     * Unique id of this node (0-1023). Must differ between nodes sharing a database.
+     * When unset, a value is derived from the host name, which is fine for a single node only.
+     */
+    private Integer nodeId;
+}
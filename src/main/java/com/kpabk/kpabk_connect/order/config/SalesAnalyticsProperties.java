@@ -0,0 +1,27 @@
+package com.kpabk.kpabk_connect.order.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Sales analytics limits and caching. Values from application.yaml (order.analytics.*).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "order.analytics")
+public class SalesAnalyticsProperties {
+
+    /** Hard cap on grouped rows returned by one request. */
+    private int maxRows = 500;
+    /** Longest fromDate..toDate span a request may scan. */
+    private int maxRangeDays = 92;
+    /** Span used when fromDate is omitted. */
+    private int defaultRangeDays = 30;
+    private Duration cacheTtl = Duration.ofSeconds(60);
+    private int cacheMaxEntries = 256;
+}
@@ -4,22 +4,28 @@ import com.kpabk.kpabk_connect.auth.model.User;
 import com.kpabk.kpabk_connect.auth.repository.UserRepository;
 import com.kpabk.kpabk_connect.order.dto.*;
 import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.service.OrderExportService;
+import com.kpabk.kpabk_connect.order.service.OrderIdempotencyService;
 import com.kpabk.kpabk_connect.order.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Order API: customer (place, my orders, get by id), outlet (list by outlet, update status), admin (list all, revenue).
+ * Order API: customer (place, my orders, get by id), outlet (list by outlet, update status), admin (list all, revenue, export).
  */
 @RestController
 @RequestMapping("/api/orders")
@@ -27,13 +33,18 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderIdempotencyService orderIdempotencyService;
     private final UserRepository userRepository;
 
     // ---- Customer ----
 
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('OUTLET') or hasRole('ADMIN')")
-    public ResponseEntity<OrderResponse> placeOrder(@Valid @RequestBody CreateOrderRequest request) {
+    public ResponseEntity<OrderResponse> placeOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
         Long customerId = resolveCurrentUserId().orElse(request.getCustomerId());
         if (customerId != null && request.getCustomerId() == null) {
             request = CreateOrderRequest.builder()
@@ -42,6 +53,12 @@ public class OrderController {
                     .items(request.getItems())
                     .build();
         }
+        if (idempotencyKey != null) {
+            OrderIdempotencyService.Placement placement = orderIdempotencyService.placeOrder(request, idempotencyKey);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header("Idempotent-Replayed", Boolean.toString(placement.replayed()))
+                    .body(placement.order());
+        }
         OrderResponse created = orderService.placeOrder(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
@@ -72,15 +89,31 @@ public class OrderController {
 
     @GetMapping("/my-orders")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<PageResponse<OrderResponse>> getMyOrders(
+    public ResponseEntity<PageResponse<?>> getMyOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "FULL") OrderView view,
             Authentication authentication
     ) {
         Long customerId = resolveCurrentUserId()
                 .orElseThrow(() -> new IllegalStateException("Current user id not found"));
-        PageResponse<OrderResponse> result = orderService.getMyOrders(customerId, page, size, status);
+        PageResponse<?> result = view == OrderView.SUMMARY
+                ? orderService.getMyOrderSummaries(customerId, page, size, status)
+                : orderService.getMyOrders(customerId, page, size, status);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/my-orders/cursor")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<CursorPageResponse<OrderResponse>> getMyOrdersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) OrderStatus status
+    ) {
+        Long customerId = resolveCurrentUserId()
+                .orElseThrow(() -> new IllegalStateException("Current user id not found"));
+        CursorPageResponse<OrderResponse> result = orderService.getMyOrdersByCursor(customerId, cursor, size, status);
         return ResponseEntity.ok(result);
     }
 
@@ -106,18 +139,54 @@ public class OrderController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Bulk status change (e.g. kitchen marks many orders READY). Outlet users only affect their own outlet's orders.
+     */
+    @PatchMapping("/status")
+    @PreAuthorize("hasRole('OUTLET') or hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateOrderStatusResponse> bulkUpdateStatus(
+            @Valid @RequestBody BulkUpdateOrderStatusRequest request,
+            Authentication authentication
+    ) {
+        boolean admin = authentication.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        Long outletId = null;
+        if (!admin) {
+            outletId = resolveCurrentUserOutletId().orElse(null);
+            if (outletId == null) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+        }
+        return ResponseEntity.ok(orderService.bulkUpdateStatus(request.getOrderIds(), outletId, request.getStatus()));
+    }
+
     // ---- Admin ----
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<PageResponse<OrderResponse>> getAllOrders(
+    public ResponseEntity<PageResponse<?>> getAllOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) OrderStatus status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant toDate,
+            @RequestParam(defaultValue = "FULL") OrderView view
+    ) {
+        PageResponse<?> result = view == OrderView.SUMMARY
+                ? orderService.getAllOrderSummaries(page, size, status, fromDate, toDate)
+                : orderService.getAllOrders(page, size, status, fromDate, toDate);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPageResponse<OrderResponse>> getAllOrdersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant toDate
     ) {
-        PageResponse<OrderResponse> result = orderService.getAllOrders(page, size, status, fromDate, toDate);
+        CursorPageResponse<OrderResponse> result = orderService.getAllOrdersByCursor(cursor, size, status, fromDate, toDate);
         return ResponseEntity.ok(result);
     }
 
@@ -131,6 +200,45 @@ public class OrderController {
         return ResponseEntity.ok(summary);
     }
 
+    /**
+     * Streams orders with their line items (CSV: one row per item, NDJSON: one object per order) for finance exports.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "CSV") OrderExportFormat format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant toDate,
+            @RequestParam(required = false) Long outletId,
+            @RequestParam(required = false) OrderStatus status
+    ) {
+        StreamingResponseBody body = orderExportService.export(format, fromDate, toDate, outletId, status);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/revenue-rollup/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuildRevenueRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDay,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDay
+    ) {
+        int rows = orderService.rebuildRevenueRollup(fromDay, toDay);
+        return ResponseEntity.ok(ApiResponse.success("Revenue rollup rebuilt", rows));
+    }
+
+    @GetMapping("/revenue-rollup/check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RevenueRollupCheckResponse> checkRevenueRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDay,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDay
+    ) {
+        return ResponseEntity.ok(orderService.checkRevenueRollup(fromDay, toDay));
+    }
+
     private Optional<Long> resolveCurrentUserId() {
         return Optional.ofNullable(org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication())
                 .filter(Authentication::isAuthenticated)
@@ -0,0 +1,20 @@
+package com.kpabk.kpabk_connect.order.controller;
+
+import com.kpabk.kpabk_connect.order.dto.OrderView;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Binds {@code ?view=} case-insensitively, so the documented {@code view=summary} works as well as {@code SUMMARY}.
+ * Registered with MVC's conversion service as a bean.
+ */
+@Component
+public class OrderViewConverter implements Converter<String, OrderView> {
+
+    @Override
+    public OrderView convert(String source) {
+        return OrderView.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
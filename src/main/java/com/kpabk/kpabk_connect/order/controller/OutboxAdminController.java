@@ -0,0 +1,26 @@
+package com.kpabk.kpabk_connect.order.controller;
+
+import com.kpabk.kpabk_connect.common.outbox.OutboxDispatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin view of the transactional outbox backlog (pending / dead events, age of the oldest pending one).
+ */
+@RestController
+@RequestMapping("/api/admin/outbox")
+@RequiredArgsConstructor
+public class OutboxAdminController {
+
+    private final OutboxDispatcher outboxDispatcher;
+
+    @GetMapping("/backlog")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OutboxDispatcher.Backlog> getBacklog() {
+        return ResponseEntity.ok(outboxDispatcher.backlog());
+    }
+}
@@ -2,20 +2,28 @@ package com.kpabk.kpabk_connect.order.controller;
 
 import com.kpabk.kpabk_connect.auth.model.User;
 import com.kpabk.kpabk_connect.auth.repository.UserRepository;
+import com.kpabk.kpabk_connect.order.dto.CursorPageResponse;
 import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.order.dto.OrderStatusCountsResponse;
+import com.kpabk.kpabk_connect.order.dto.OrderView;
 import com.kpabk.kpabk_connect.order.dto.PageResponse;
 import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.service.OrderEventStreamService;
 import com.kpabk.kpabk_connect.order.service.OrderService;
+import com.kpabk.kpabk_connect.order.service.OrderStatusCounterService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Optional;
 
 /**
- * Outlet-scoped order listing: GET /api/outlets/{outletId}/orders.
+ * Outlet-scoped order listing: GET /api/outlets/{outletId}/orders (offset) and .../orders/cursor (keyset),
+ * plus the live order board stream .../orders/stream (Server-Sent Events) and per-status counts .../orders/status-counts.
  * OUTLET can only access their own outletId; ADMIN can access any.
  */
 @RestController
@@ -24,15 +32,18 @@ import java.util.Optional;
 public class OutletOrderController {
 
     private final OrderService orderService;
+    private final OrderEventStreamService orderEventStreamService;
+    private final OrderStatusCounterService orderStatusCounterService;
     private final UserRepository userRepository;
 
     @GetMapping("/{outletId}/orders")
     @PreAuthorize("hasRole('OUTLET') or hasRole('ADMIN')")
-    public ResponseEntity<PageResponse<OrderResponse>> getOrdersByOutlet(
+    public ResponseEntity<PageResponse<?>> getOrdersByOutlet(
             @PathVariable Long outletId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "FULL") OrderView view,
             Authentication authentication
     ) {
         Optional<Long> currentOutletId = resolveCurrentUserOutletId();
@@ -41,10 +52,67 @@ public class OutletOrderController {
         if (!admin && currentOutletId.map(id -> !id.equals(outletId)).orElse(true)) {
             return ResponseEntity.status(403).build();
         }
-        PageResponse<OrderResponse> result = orderService.getOrdersByOutlet(outletId, page, size, status);
+        PageResponse<?> result = view == OrderView.SUMMARY
+                ? orderService.getOrderSummariesByOutlet(outletId, page, size, status)
+                : orderService.getOrdersByOutlet(outletId, page, size, status);
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/{outletId}/orders/cursor")
+    @PreAuthorize("hasRole('OUTLET') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPageResponse<OrderResponse>> getOrdersByOutletByCursor(
+            @PathVariable Long outletId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) OrderStatus status,
+            Authentication authentication
+    ) {
+        Optional<Long> currentOutletId = resolveCurrentUserOutletId();
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (!admin && currentOutletId.map(id -> !id.equals(outletId)).orElse(true)) {
+            return ResponseEntity.status(403).build();
+        }
+        CursorPageResponse<OrderResponse> result = orderService.getOrdersByOutletByCursor(outletId, cursor, size, status);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Live order board: order-placed, status-changed and payment-status-changed events for the outlet.
+     * Reconnect with the Last-Event-ID header to resume; a resync event means reload the list.
+     */
+    @GetMapping(value = "/{outletId}/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('OUTLET') or hasRole('ADMIN')")
+    public ResponseEntity<SseEmitter> streamOrders(
+            @PathVariable Long outletId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Authentication authentication
+    ) {
+        Optional<Long> currentOutletId = resolveCurrentUserOutletId();
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (!admin && currentOutletId.map(id -> !id.equals(outletId)).orElse(true)) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(orderEventStreamService.subscribe(outletId, lastEventId));
+    }
+
+    /** Order count per status for the outlet's home screen, served from in-memory counters (no query per call). */
+    @GetMapping("/{outletId}/orders/status-counts")
+    @PreAuthorize("hasRole('OUTLET') or hasRole('ADMIN')")
+    public ResponseEntity<OrderStatusCountsResponse> getStatusCounts(
+            @PathVariable Long outletId,
+            Authentication authentication
+    ) {
+        Optional<Long> currentOutletId = resolveCurrentUserOutletId();
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (!admin && currentOutletId.map(id -> !id.equals(outletId)).orElse(true)) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(orderStatusCounterService.getCounts(outletId));
+    }
+
     private Optional<Long> resolveCurrentUserOutletId() {
         return Optional.ofNullable(org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication())
                 .filter(Authentication::isAuthenticated)
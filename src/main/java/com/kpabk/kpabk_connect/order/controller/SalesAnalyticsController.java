@@ -0,0 +1,38 @@
+package com.kpabk.kpabk_connect.order.controller;
+
+import com.kpabk.kpabk_connect.order.dto.SalesAnalyticsResponse;
+import com.kpabk.kpabk_connect.order.dto.SalesGroupBy;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import com.kpabk.kpabk_connect.order.service.SalesAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+/**
+ * Admin sales analytics: revenue, quantity and order count grouped by outlet, product, category, day or hour.
+ */
+@RestController
+@RequestMapping("/api/orders/analytics")
+@RequiredArgsConstructor
+public class SalesAnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    @GetMapping("/sales")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SalesAnalyticsResponse> getSales(
+            @RequestParam SalesGroupBy groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant toDate,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(salesAnalyticsService.getSales(groupBy, fromDate, toDate, status, paymentStatus, limit));
+    }
+}
@@ -0,0 +1,27 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUpdateOrderStatusRequest {
+
+    @NotEmpty(message = "At least one order id is required")
+    @Size(max = 200, message = "At most 200 orders can be updated at once")
+    private List<@NotNull UUID> orderIds;
+
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+}
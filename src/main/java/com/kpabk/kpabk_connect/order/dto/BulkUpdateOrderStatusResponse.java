@@ -0,0 +1,41 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-order outcome of a bulk status update, in the order the ids were requested.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUpdateOrderStatusResponse {
+
+    private OrderStatus status;
+    private int updatedCount;
+    private List<Result> results;
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        INVALID_TRANSITION
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private UUID orderId;
+        private Outcome outcome;
+        /** Status before the update (null when not found). */
+        private OrderStatus previousStatus;
+    }
+}
@@ -0,0 +1,26 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated response. No total count; pass {@code nextCursor} back as {@code cursor} to get the next slice.
+ */
+@Schema(description = "Cursor-paginated response wrapper")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+    /** Opaque cursor for the next slice; null when there are no more results. */
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,33 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Data of one live order board (SSE) event; the SSE event name is the change type
+ * (order-placed, status-changed, payment-status-changed).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBoardEvent {
+
+    private UUID orderId;
+    private String orderNumber;
+    private Long outletId;
+    private OrderStatus status;
+    private OrderStatus previousStatus;
+    private PaymentStatus paymentStatus;
+    private PaymentStatus previousPaymentStatus;
+    private BigDecimal totalAmount;
+    /** ISO-8601 instant. */
+    private String occurredAt;
+}
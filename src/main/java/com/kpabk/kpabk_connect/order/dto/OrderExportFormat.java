@@ -0,0 +1,25 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+/**
+ * Output format of the order export: CSV emits one row per line item, NDJSON one JSON object per order.
+ */
+public enum OrderExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    OrderExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
@@ -27,5 +27,7 @@ public class OrderResponse {
     private PaymentStatus paymentStatus;
     private Instant createdAt;
     private Instant updatedAt;
+    /** Optimistic-lock version; changes on every update. */
+    private Long version;
     private List<OrderItemResponse> items;
 }
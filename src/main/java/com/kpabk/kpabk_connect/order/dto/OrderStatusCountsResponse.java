@@ -0,0 +1,23 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Order count per status for one outlet; every status is present (zero if none).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusCountsResponse {
+
+    private Long outletId;
+    private Map<OrderStatus, Long> counts;
+    private long total;
+}
@@ -0,0 +1,34 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Order without line items, for list screens (view=summary). Filled by a JPQL constructor expression,
+ * so the field order must match the repository queries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaryResponse {
+
+    private UUID id;
+    private String orderNumber;
+    private Long outletId;
+    private Long customerId;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private PaymentStatus paymentStatus;
+    private Integer itemCount;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
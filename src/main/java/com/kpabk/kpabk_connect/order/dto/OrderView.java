@@ -0,0 +1,9 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+/**
+ * Shape of order listings: FULL embeds line items, SUMMARY returns {@link OrderSummaryResponse} rows only.
+ */
+public enum OrderView {
+    FULL,
+    SUMMARY
+}
@@ -0,0 +1,43 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Result of comparing the daily revenue rollup with a fresh aggregate of the orders table.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueRollupCheckResponse {
+
+    private LocalDate fromDay;
+    private LocalDate toDay;
+    private int daysChecked;
+    private boolean consistent;
+    private List<Mismatch> mismatches;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Mismatch {
+        private LocalDate day;
+        private Long outletId;
+        private OrderStatus status;
+        private PaymentStatus paymentStatus;
+        private long rollupCount;
+        private long rawCount;
+        private BigDecimal rollupAmount;
+        private BigDecimal rawAmount;
+    }
+}
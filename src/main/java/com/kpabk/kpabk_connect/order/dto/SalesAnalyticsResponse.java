@@ -0,0 +1,45 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Grouped sales aggregates. {@code truncated} is true when more groups existed than {@code limit}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesAnalyticsResponse {
+
+    private SalesGroupBy groupBy;
+    private Instant fromDate;
+    private Instant toDate;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private int limit;
+    private boolean truncated;
+    private Instant generatedAt;
+    private List<Row> rows;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Row {
+        /** Group key: outlet id, product id, category id, ISO date or hour of day (0-23). */
+        private String key;
+        private String label;
+        private BigDecimal revenue;
+        private long quantity;
+        private long orderCount;
+    }
+}
@@ -0,0 +1,12 @@
+package com.kpabk.kpabk_connect.order.dto;
+
+/**
+ * Dimension for sales analytics. DAY and HOUR use the database session time zone.
+ */
+public enum SalesGroupBy {
+    OUTLET,
+    PRODUCT,
+    CATEGORY,
+    DAY,
+    HOUR
+}
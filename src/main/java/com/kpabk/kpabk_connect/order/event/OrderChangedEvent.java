@@ -0,0 +1,58 @@
+package com.kpabk.kpabk_connect.order.event;
+
+import com.kpabk.kpabk_connect.order.model.Order;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import com.kpabk.kpabk_connect.order.repository.OrderStatusSnapshot;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published by the order service inside the transaction that changes an order; listeners that talk to the outside
+ * world should use {@code @TransactionalEventListener(phase = AFTER_COMMIT)} so rolled-back changes are never seen.
+ * Previous status / payment status are null for {@link Type#ORDER_PLACED}.
+ */
+public record OrderChangedEvent(
+        Type type,
+        UUID orderId,
+        String orderNumber,
+        Long outletId,
+        OrderStatus status,
+        OrderStatus previousStatus,
+        PaymentStatus paymentStatus,
+        PaymentStatus previousPaymentStatus,
+        BigDecimal totalAmount,
+        Instant occurredAt
+) {
+
+    public enum Type {
+        ORDER_PLACED,
+        STATUS_CHANGED,
+        PAYMENT_STATUS_CHANGED
+    }
+
+    public static OrderChangedEvent placed(Order order) {
+        return new OrderChangedEvent(Type.ORDER_PLACED, order.getId(), order.getOrderNumber(), order.getOutletId(),
+                order.getStatus(), null, order.getPaymentStatus(), null, order.getTotalAmount(), Instant.now());
+    }
+
+    public static OrderChangedEvent statusChanged(Order order, OrderStatus previousStatus) {
+        return new OrderChangedEvent(Type.STATUS_CHANGED, order.getId(), order.getOrderNumber(), order.getOutletId(),
+                order.getStatus(), previousStatus, order.getPaymentStatus(), order.getPaymentStatus(),
+                order.getTotalAmount(), Instant.now());
+    }
+
+    public static OrderChangedEvent statusChanged(OrderStatusSnapshot snapshot, OrderStatus newStatus) {
+        return new OrderChangedEvent(Type.STATUS_CHANGED, snapshot.id(), snapshot.orderNumber(), snapshot.outletId(),
+                newStatus, snapshot.status(), snapshot.paymentStatus(), snapshot.paymentStatus(),
+                snapshot.totalAmount(), Instant.now());
+    }
+
+    public static OrderChangedEvent paymentStatusChanged(Order order, PaymentStatus previousPaymentStatus) {
+        return new OrderChangedEvent(Type.PAYMENT_STATUS_CHANGED, order.getId(), order.getOrderNumber(), order.getOutletId(),
+                order.getStatus(), order.getStatus(), order.getPaymentStatus(), previousPaymentStatus,
+                order.getTotalAmount(), Instant.now());
+    }
+}
@@ -1,11 +1,13 @@
 package com.kpabk.kpabk_connect.order.exception;
 
+import com.kpabk.kpabk_connect.cart.controller.CartCheckoutController;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -17,7 +19,8 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
-@RestControllerAdvice(basePackages = "com.kpabk.kpabk_connect.order.controller")
+/** Also covers cart checkout, which surfaces order placement errors; the other cart endpoints are not affected. */
+@RestControllerAdvice(basePackages = "com.kpabk.kpabk_connect.order.controller", assignableTypes = CartCheckoutController.class)
 public class GlobalExceptionHandler {
 
     @Hidden
@@ -46,6 +49,59 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @Hidden
+    @ExceptionHandler(OutOfStockException.class)
+    public ResponseEntity<ErrorBody> handleOutOfStock(OutOfStockException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                ErrorBody.builder()
+                        .timestamp(Instant.now())
+                        .status(HttpStatus.CONFLICT.value())
+                        .error("Conflict")
+                        .message(ex.getMessage())
+                        .build()
+        );
+    }
+
+    @Hidden
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorBody> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                ErrorBody.builder()
+                        .timestamp(Instant.now())
+                        .status(HttpStatus.CONFLICT.value())
+                        .error("Conflict")
+                        .message(ex.getMessage())
+                        .build()
+        );
+    }
+
+    @Hidden
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorBody> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_CONTENT).body(
+                ErrorBody.builder()
+                        .timestamp(Instant.now())
+                        .status(HttpStatus.UNPROCESSABLE_CONTENT.value())
+                        .error("Unprocessable Content")
+                        .message(ex.getMessage())
+                        .build()
+        );
+    }
+
+    /** Concurrent update of the same order still conflicted after retries: client should reload and retry. */
+    @Hidden
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorBody> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                ErrorBody.builder()
+                        .timestamp(Instant.now())
+                        .status(HttpStatus.CONFLICT.value())
+                        .error("Conflict")
+                        .message("Order was modified concurrently; reload it and retry")
+                        .build()
+        );
+    }
+
     @Hidden
     @ExceptionHandler(OrderValidationException.class)
     public ResponseEntity<ErrorBody> handleOrderValidation(OrderValidationException ex) {
@@ -0,0 +1,11 @@
+package com.kpabk.kpabk_connect.order.exception;
+
+/**
+ * Thrown when a request with the same Idempotency-Key is still being processed (client should retry later).
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
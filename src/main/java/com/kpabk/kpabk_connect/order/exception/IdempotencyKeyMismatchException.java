@@ -0,0 +1,11 @@
+package com.kpabk.kpabk_connect.order.exception;
+
+/**
+ * Thrown when an Idempotency-Key is reused with a different request body.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.kpabk.kpabk_connect.order.exception;
+
+import java.util.UUID;
+
+/**
+ * Thrown when an outlet does not have enough stock left for an ordered product.
+ */
+public class OutOfStockException extends RuntimeException {
+
+    public OutOfStockException(UUID productId) {
+        super("Insufficient stock for product: " + productId);
+    }
+}
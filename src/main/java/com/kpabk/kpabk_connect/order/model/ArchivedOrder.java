@@ -0,0 +1,65 @@
+package com.kpabk.kpabk_connect.order.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Closed order moved out of {@code orders} by the archival job. Same columns and ids as {@link Order};
+ * rows are written only by the job's INSERT ... SELECT, afterwards just the payment status may change (late refunds).
+ */
+@Schema(hidden = true)
+@Entity
+@Table(name = "orders_archive", indexes = {
+    @Index(name = "idx_order_archive_order_number", columnList = "order_number", unique = true),
+    @Index(name = "idx_order_archive_outlet_created", columnList = "outlet_id, created_at, id"),
+    @Index(name = "idx_order_archive_customer_created", columnList = "customer_id, created_at, id"),
+    @Index(name = "idx_order_archive_created_id", columnList = "created_at, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrder {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "order_number", nullable = false, unique = true, length = 50)
+    private String orderNumber;
+
+    @Column(name = "outlet_id", nullable = false)
+    private Long outletId;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 20)
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "item_count")
+    private Integer itemCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /** Version of the hot row when it was archived; kept so clients see a continuous value. */
+    @Column(name = "version")
+    private Long version;
+}
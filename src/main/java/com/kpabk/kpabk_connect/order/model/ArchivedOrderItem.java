@@ -0,0 +1,45 @@
+package com.kpabk.kpabk_connect.order.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Line item of an {@link ArchivedOrder}. References the order by id only; archive rows are never cascaded.
+ */
+@Schema(hidden = true)
+@Entity
+@Table(name = "order_items_archive", indexes = {
+    @Index(name = "idx_order_item_archive_order", columnList = "order_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrderItem {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "product_name", nullable = false, length = 255)
+    private String productName;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "price_at_order_time", nullable = false, precision = 19, scale = 2)
+    private BigDecimal priceAtOrderTime;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal subtotal;
+}
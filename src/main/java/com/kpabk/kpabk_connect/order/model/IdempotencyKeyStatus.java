@@ -0,0 +1,10 @@
+package com.kpabk.kpabk_connect.order.model;
+
+/**
+ * State of an Idempotency-Key claim: IN_PROGRESS while the first request is placing the order, COMPLETED once the
+ * order is committed (the key then maps to that order).
+ */
+public enum IdempotencyKeyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -1,5 +1,6 @@
 package com.kpabk.kpabk_connect.order.model;
 
+import com.kpabk.kpabk_connect.common.id.UuidV7;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
@@ -12,16 +13,19 @@ import java.util.UUID;
 
 /**
  * Order entity. References outlet and optional customer by ID (loose coupling).
- * H2 and PostgreSQL compatible. UUID primary key.
+ * H2 and PostgreSQL compatible. Time-ordered UUIDv7 primary key.
+ * Composite (scope, created_at, id) indexes back the keyset listings; their leading columns also serve
+ * plain outlet/customer/date/status lookups.
+ * Optimistically locked via {@link #version}; concurrent read-modify-write updates fail instead of overwriting.
  */
 @Schema(hidden = true)
 @Entity
 @Table(name = "orders", indexes = {
     @Index(name = "idx_order_order_number", columnList = "order_number", unique = true),
-    @Index(name = "idx_order_outlet", columnList = "outlet_id"),
-    @Index(name = "idx_order_customer", columnList = "customer_id"),
-    @Index(name = "idx_order_status", columnList = "status"),
-    @Index(name = "idx_order_created_at", columnList = "created_at")
+    @Index(name = "idx_order_outlet_created", columnList = "outlet_id, created_at, id"),
+    @Index(name = "idx_order_customer_created", columnList = "customer_id, created_at, id"),
+    @Index(name = "idx_order_status_created", columnList = "status, created_at, id"),
+    @Index(name = "idx_order_created_id", columnList = "created_at, id")
 })
 @Getter
 @Setter
@@ -31,7 +35,7 @@ import java.util.UUID;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "order_number", nullable = false, unique = true, length = 50)
@@ -56,6 +60,10 @@ public class Order {
     @Builder.Default
     private PaymentStatus paymentStatus = PaymentStatus.UNPAID;
 
+    /** Number of line items, denormalized so summary listings never read order_items. */
+    @Column(name = "item_count")
+    private Integer itemCount;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     @Builder.Default
     private Instant createdAt = Instant.now();
@@ -64,6 +72,10 @@ public class Order {
     @Builder.Default
     private Instant updatedAt = Instant.now();
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
@@ -0,0 +1,57 @@
+package com.kpabk.kpabk_connect.order.model;
+
+import com.kpabk.kpabk_connect.common.id.UuidV7;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Idempotency-Key claim for POST /api/orders. Unique per scope (customer or outlet) and key; the request hash detects
+ * the same key being reused for a different order. Rows expire after order.idempotency.ttl.
+ */
+@Schema(hidden = true)
+@Entity
+@Table(name = "order_idempotency_keys",
+    uniqueConstraints = @UniqueConstraint(name = "uq_order_idempotency_scope_key",
+        columnNames = {"scope", "idempotency_key"}),
+    indexes = {
+        @Index(name = "idx_order_idempotency_expires", columnList = "expires_at")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIdempotencyKey {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @Column(nullable = false, length = 40)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IdempotencyKeyStatus status;
+
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    /** When the current attempt claimed the key; a stale IN_PROGRESS claim can be taken over. */
+    @Column(name = "claimed_at", nullable = false)
+    private Instant claimedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,55 @@
+package com.kpabk.kpabk_connect.order.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Daily revenue rollup: order count and total amount per UTC day (of order creation) x outlet x status x payment status.
+ * Maintained incrementally by OrderRevenueRollupService whenever an order is placed or changes status/payment status.
+ */
+@Schema(hidden = true)
+@Entity
+@Table(name = "order_revenue_daily",
+    uniqueConstraints = @UniqueConstraint(name = "uq_revenue_daily_bucket",
+        columnNames = {"revenue_day", "outlet_id", "status", "payment_status"}),
+    indexes = {
+        @Index(name = "idx_revenue_daily_status_day", columnList = "status, payment_status, revenue_day")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderRevenueDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "revenue_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "outlet_id", nullable = false)
+    private Long outletId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 20)
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Long orderCount = 0L;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+}
@@ -0,0 +1,24 @@
+package com.kpabk.kpabk_connect.order.repository;
+
+import com.kpabk.kpabk_connect.order.model.ArchivedOrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, UUID> {
+
+    List<ArchivedOrderItem> findByOrderIdIn(Collection<UUID> orderIds);
+
+    @Modifying
+    @Query("INSERT INTO ArchivedOrderItem (id, orderId, productId, productName, quantity, priceAtOrderTime, subtotal) "
+            + "SELECT i.id, i.order.id, i.productId, i.productName, i.quantity, i.priceAtOrderTime, i.subtotal "
+            + "FROM OrderItem i WHERE i.order.id IN :orderIds")
+    int copyFromOrderItems(@Param("orderIds") Collection<UUID> orderIds);
+}
@@ -0,0 +1,59 @@
+package com.kpabk.kpabk_connect.order.repository;
+
+import com.kpabk.kpabk_connect.order.dto.OrderSummaryResponse;
+import com.kpabk.kpabk_connect.order.model.ArchivedOrder;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, UUID> {
+
+    @Query("SELECT COUNT(o) FROM ArchivedOrder o WHERE o.customerId = :customerId "
+            + "AND (:status IS NULL OR o.status = :status)")
+    long countByCustomerId(@Param("customerId") Long customerId, @Param("status") OrderStatus status);
+
+    /** Newest first, same order as the hot listing; offset and limit come from the pageable. */
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.customerId = :customerId "
+            + "AND (:status IS NULL OR o.status = :status) ORDER BY o.createdAt DESC, o.id DESC")
+    List<ArchivedOrder> findByCustomerId(
+            @Param("customerId") Long customerId, @Param("status") OrderStatus status, Pageable slice);
+
+    @Query("SELECT new com.kpabk.kpabk_connect.order.dto.OrderSummaryResponse("
+            + "o.id, o.orderNumber, o.outletId, o.customerId, o.status, o.totalAmount, o.paymentStatus, "
+            + "o.itemCount, o.createdAt, o.updatedAt) FROM ArchivedOrder o WHERE o.customerId = :customerId "
+            + "AND (:status IS NULL OR o.status = :status) ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryResponse> findSummariesByCustomerId(
+            @Param("customerId") Long customerId, @Param("status") OrderStatus status, Pageable slice);
+
+    @Query("SELECT new com.kpabk.kpabk_connect.order.repository.OrderFacts("
+            + "o.id, o.outletId, o.customerId, o.status, o.totalAmount) FROM ArchivedOrder o WHERE o.id = :id")
+    Optional<OrderFacts> findFactsById(@Param("id") UUID id);
+
+    @Query("SELECT new com.kpabk.kpabk_connect.order.repository.OrderRevenueBucket("
+            + "o.outletId, o.status, o.paymentStatus, COUNT(o), COALESCE(SUM(o.totalAmount), 0)) "
+            + "FROM ArchivedOrder o WHERE o.createdAt >= :from AND o.createdAt < :toExclusive "
+            + "GROUP BY o.outletId, o.status, o.paymentStatus")
+    List<OrderRevenueBucket> aggregateRevenueBuckets(
+            @Param("from") Instant from,
+            @Param("toExclusive") Instant toExclusive
+    );
+
+    /** Copies the given hot orders; the caller holds row locks on them and deletes them in the same transaction. */
+    @Modifying
+    @Query("INSERT INTO ArchivedOrder (id, orderNumber, outletId, customerId, status, totalAmount, paymentStatus, "
+            + "itemCount, createdAt, updatedAt, version) "
+            + "SELECT o.id, o.orderNumber, o.outletId, o.customerId, o.status, o.totalAmount, o.paymentStatus, "
+            + "o.itemCount, o.createdAt, o.updatedAt, o.version FROM Order o WHERE o.id IN :ids")
+    int copyFromOrders(@Param("ids") Collection<UUID> ids);
+}
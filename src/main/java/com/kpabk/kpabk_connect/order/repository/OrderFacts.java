@@ -0,0 +1,25 @@
+package com.kpabk.kpabk_connect.order.repository;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The few order fields other modules (payment) need, read without items or the rest of the row.
+ */
+public record OrderFacts(
+        UUID id,
+        Long outletId,
+        Long customerId,
+        OrderStatus status,
+        BigDecimal totalAmount
+) {
+
+    /** Orders are single-currency; kept here so callers do not hard-code it. */
+    public static final String CURRENCY = "INR";
+
+    public String currency() {
+        return CURRENCY;
+    }
+}
@@ -0,0 +1,44 @@
+package com.kpabk.kpabk_connect.order.repository;
+
+import com.kpabk.kpabk_connect.order.model.IdempotencyKeyStatus;
+import com.kpabk.kpabk_connect.order.model.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, UUID> {
+
+    Optional<OrderIdempotencyKey> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    /** Completes the claim only if it is still ours (same claimedAt); 0 if it was taken over meanwhile. */
+    @Modifying
+    @Query("UPDATE OrderIdempotencyKey k SET k.status = :completed, k.orderId = :orderId "
+            + "WHERE k.id = :id AND k.status = :inProgress AND k.claimedAt = :claimedAt")
+    int markCompleted(@Param("id") UUID id, @Param("claimedAt") Instant claimedAt, @Param("orderId") UUID orderId,
+                      @Param("inProgress") IdempotencyKeyStatus inProgress,
+                      @Param("completed") IdempotencyKeyStatus completed);
+
+    /** Takes over an IN_PROGRESS claim whose owner stopped before {@code staleBefore}; 1 if taken over. */
+    @Modifying
+    @Query("UPDATE OrderIdempotencyKey k SET k.claimedAt = :now, k.requestHash = :requestHash "
+            + "WHERE k.id = :id AND k.status = :inProgress AND k.claimedAt < :staleBefore")
+    int takeOverStaleClaim(@Param("id") UUID id, @Param("requestHash") String requestHash,
+                           @Param("inProgress") IdempotencyKeyStatus inProgress,
+                           @Param("staleBefore") Instant staleBefore, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyKey k WHERE k.id = :id AND k.status = :inProgress AND k.claimedAt = :claimedAt")
+    int deleteClaim(@Param("id") UUID id, @Param("claimedAt") Instant claimedAt,
+                    @Param("inProgress") IdempotencyKeyStatus inProgress);
+
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,17 +1,22 @@
 package com.kpabk.kpabk_connect.order.repository;
 
+import com.kpabk.kpabk_connect.order.dto.OrderSummaryResponse;
 import com.kpabk.kpabk_connect.order.model.Order;
 import com.kpabk.kpabk_connect.order.model.OrderStatus;
 import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,7 +25,12 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     Optional<Order> findByOrderNumber(String orderNumber);
 
-    boolean existsByOrderNumber(String orderNumber);
+    /**
+     * Second phase of a listing: initializes the items of an already loaded page of orders in one query.
+     * Paging itself stays on the plain order query so LIMIT/OFFSET are applied in the database.
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
 
     Page<Order> findByOutletId(Long outletId, Pageable pageable);
 
@@ -40,19 +50,178 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
             @Param("from") Instant from, @Param("to") Instant to,
             @Param("status") OrderStatus status, Pageable pageable);
 
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.status = :status AND o.paymentStatus = :paymentStatus AND o.createdAt >= :from AND o.createdAt <= :to")
-    BigDecimal sumTotalAmountByStatusAndPaymentAndDateBetween(
-            @Param("status") OrderStatus status,
-            @Param("paymentStatus") PaymentStatus paymentStatus,
+    /** Raw per-bucket aggregate over [from, toExclusive); source of truth for rebuilding and checking the daily rollup. */
+    @Query("SELECT new com.kpabk.kpabk_connect.order.repository.OrderRevenueBucket("
+            + "o.outletId, o.status, o.paymentStatus, COUNT(o), COALESCE(SUM(o.totalAmount), 0)) "
+            + "FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :toExclusive "
+            + "GROUP BY o.outletId, o.status, o.paymentStatus")
+    List<OrderRevenueBucket> aggregateRevenueBuckets(
             @Param("from") Instant from,
-            @Param("to") Instant to
+            @Param("toExclusive") Instant toExclusive
     );
 
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status AND o.paymentStatus = :paymentStatus AND o.createdAt >= :from AND o.createdAt <= :to")
-    long countByStatusAndPaymentAndDateBetween(
-            @Param("status") OrderStatus status,
-            @Param("paymentStatus") PaymentStatus paymentStatus,
-            @Param("from") Instant from,
-            @Param("to") Instant to
-    );
+    @Query("SELECT new com.kpabk.kpabk_connect.order.repository.OrderFacts("
+            + "o.id, o.outletId, o.customerId, o.status, o.totalAmount) FROM Order o WHERE o.id = :id")
+    Optional<OrderFacts> findFactsById(@Param("id") UUID id);
+
+    @Query("SELECT new com.kpabk.kpabk_connect.order.repository.OrderStatusCount(o.outletId, o.status, COUNT(o)) "
+            + "FROM Order o GROUP BY o.outletId, o.status")
+    List<OrderStatusCount> countByOutletAndStatus();
+
+    @Query("SELECT new com.kpabk.kpabk_connect.order.repository.OrderStatusCount(o.outletId, o.status, COUNT(o)) "
+            + "FROM Order o WHERE o.outletId = :outletId GROUP BY o.outletId, o.status")
+    List<OrderStatusCount> countByStatusForOutlet(@Param("outletId") Long outletId);
+
+    // ---- Keyset (cursor) listings, sorted by createdAt DESC, id DESC; no count query ----
+
+    @Query("SELECT o FROM Order o WHERE o.outletId = :outletId AND (:status IS NULL OR o.status = :status) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstKeysetByOutletId(
+            @Param("outletId") Long outletId, @Param("status") OrderStatus status, Pageable limit);
+
+    @Query("SELECT o FROM Order o WHERE o.outletId = :outletId AND (:status IS NULL OR o.status = :status) "
+            + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findNextKeysetByOutletId(
+            @Param("outletId") Long outletId, @Param("status") OrderStatus status,
+            @Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable limit);
+
+    @Query("SELECT o FROM Order o WHERE o.customerId = :customerId AND (:status IS NULL OR o.status = :status) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstKeysetByCustomerId(
+            @Param("customerId") Long customerId, @Param("status") OrderStatus status, Pageable limit);
+
+    @Query("SELECT o FROM Order o WHERE o.customerId = :customerId AND (:status IS NULL OR o.status = :status) "
+            + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findNextKeysetByCustomerId(
+            @Param("customerId") Long customerId, @Param("status") OrderStatus status,
+            @Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable limit);
+
+    @Query("SELECT o FROM Order o WHERE o.createdAt >= :from AND o.createdAt <= :to "
+            + "AND (:status IS NULL OR o.status = :status) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstKeyset(
+            @Param("from") Instant from, @Param("to") Instant to,
+            @Param("status") OrderStatus status, Pageable limit);
+
+    @Query("SELECT o FROM Order o WHERE o.createdAt >= :from AND o.createdAt <= :to "
+            + "AND (:status IS NULL OR o.status = :status) "
+            + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findNextKeyset(
+            @Param("from") Instant from, @Param("to") Instant to, @Param("status") OrderStatus status,
+            @Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable limit);
+
+    // ---- Summary projections (view=summary); never join order_items ----
+
+    String SUMMARY_SELECT = "SELECT new com.kpabk.kpabk_connect.order.dto.OrderSummaryResponse("
+            + "o.id, o.orderNumber, o.outletId, o.customerId, o.status, o.totalAmount, o.paymentStatus, "
+            + "o.itemCount, o.createdAt, o.updatedAt) FROM Order o ";
+
+    @Query(value = SUMMARY_SELECT + "WHERE o.outletId = :outletId AND (:status IS NULL OR o.status = :status)",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.outletId = :outletId AND (:status IS NULL OR o.status = :status)")
+    Page<OrderSummaryResponse> findSummariesByOutletId(
+            @Param("outletId") Long outletId, @Param("status") OrderStatus status, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE o.customerId = :customerId AND (:status IS NULL OR o.status = :status)",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.customerId = :customerId AND (:status IS NULL OR o.status = :status)")
+    Page<OrderSummaryResponse> findSummariesByCustomerId(
+            @Param("customerId") Long customerId, @Param("status") OrderStatus status, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE o.createdAt >= :from AND o.createdAt <= :to AND (:status IS NULL OR o.status = :status)",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.createdAt >= :from AND o.createdAt <= :to AND (:status IS NULL OR o.status = :status)")
+    Page<OrderSummaryResponse> findSummaries(
+            @Param("from") Instant from, @Param("to") Instant to,
+            @Param("status") OrderStatus status, Pageable pageable);
+
+    // ---- Bulk status updates; outlet ownership is enforced in the WHERE clause (null outletId = admin) ----
+
+    /**
+     * Snapshots of the given orders, locked in id order until the transaction ends. Status and payment status cannot
+     * change between the snapshot and the bulk UPDATE, so the UPDATE moves exactly the rows validated here and the
+     * rollup buckets are booked from current values.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.kpabk.kpabk_connect.order.repository.OrderStatusSnapshot("
+            + "o.id, o.orderNumber, o.outletId, o.status, o.paymentStatus, o.totalAmount, o.createdAt) FROM Order o "
+            + "WHERE o.id IN :ids AND (:outletId IS NULL OR o.outletId = :outletId) ORDER BY o.id")
+    List<OrderStatusSnapshot> lockStatusSnapshots(
+            @Param("ids") Collection<UUID> ids, @Param("outletId") Long outletId);
+
+    /**
+     * Moves the given orders to {@code target} only if they are still in {@code source}; returns rows updated.
+     * Bumps the version so concurrent entity-based updates of the same orders fail their optimistic check.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.updatedAt = :now, o.version = COALESCE(o.version, 0) + 1 "
+            + "WHERE o.id IN :ids AND o.status = :source AND (:outletId IS NULL OR o.outletId = :outletId)")
+    int updateStatusWhereCurrent(
+            @Param("ids") Collection<UUID> ids, @Param("outletId") Long outletId,
+            @Param("source") OrderStatus source, @Param("target") OrderStatus target, @Param("now") Instant now);
+
+    // ---- Auto-cancellation of stale unpaid orders; keyset over (createdAt, id) ascending ----
+
+    @Query("SELECT new com.kpabk.kpabk_connect.order.repository.OrderStatusSnapshot("
+            + "o.id, o.orderNumber, o.outletId, o.status, o.paymentStatus, o.totalAmount, o.createdAt) FROM Order o "
+            + "WHERE o.status = :status AND o.paymentStatus = :paymentStatus AND o.createdAt < :createdBefore "
+            + "ORDER BY o.createdAt, o.id")
+    List<OrderStatusSnapshot> findFirstStaleKeyset(
+            @Param("status") OrderStatus status, @Param("paymentStatus") PaymentStatus paymentStatus,
+            @Param("createdBefore") Instant createdBefore, Pageable limit);
+
+    @Query("SELECT new com.kpabk.kpabk_connect.order.repository.OrderStatusSnapshot("
+            + "o.id, o.orderNumber, o.outletId, o.status, o.paymentStatus, o.totalAmount, o.createdAt) FROM Order o "
+            + "WHERE o.status = :status AND o.paymentStatus = :paymentStatus AND o.createdAt < :createdBefore "
+            + "AND (o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.id > :id)) "
+            + "ORDER BY o.createdAt, o.id")
+    List<OrderStatusSnapshot> findNextStaleKeyset(
+            @Param("status") OrderStatus status, @Param("paymentStatus") PaymentStatus paymentStatus,
+            @Param("createdBefore") Instant createdBefore,
+            @Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable limit);
+
+    /** Like {@link #lockStatusSnapshots}, for the candidates that are still stale and unpaid. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.kpabk.kpabk_connect.order.repository.OrderStatusSnapshot("
+            + "o.id, o.orderNumber, o.outletId, o.status, o.paymentStatus, o.totalAmount, o.createdAt) FROM Order o "
+            + "WHERE o.id IN :ids AND o.status = :status AND o.paymentStatus = :paymentStatus "
+            + "AND o.createdAt < :createdBefore ORDER BY o.id")
+    List<OrderStatusSnapshot> lockStaleSnapshots(
+            @Param("ids") Collection<UUID> ids, @Param("status") OrderStatus status,
+            @Param("paymentStatus") PaymentStatus paymentStatus, @Param("createdBefore") Instant createdBefore);
+
+    /**
+     * Like {@link #updateStatusWhereCurrent}, but also requires the payment status and an upper creation time to
+     * still hold, so an order paid since it was selected is left alone.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.updatedAt = :now, o.version = COALESCE(o.version, 0) + 1 "
+            + "WHERE o.id IN :ids AND o.status = :source AND o.paymentStatus = :paymentStatus "
+            + "AND o.createdAt < :createdBefore")
+    int updateStatusWhereStale(
+            @Param("ids") Collection<UUID> ids, @Param("source") OrderStatus source,
+            @Param("paymentStatus") PaymentStatus paymentStatus, @Param("createdBefore") Instant createdBefore,
+            @Param("target") OrderStatus target, @Param("now") Instant now);
+
+    // ---- Archival of closed orders ----
+
+    /** Oldest closed orders last touched before {@code cutoff}; candidates only, re-checked under lock. */
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :cutoff ORDER BY o.updatedAt, o.id")
+    List<UUID> findArchivableIds(
+            @Param("statuses") Collection<OrderStatus> statuses, @Param("cutoff") Instant cutoff, Pageable limit);
+
+    /** Locks the candidates that still qualify, so no update can land between the archive copy and the delete. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.status IN :statuses AND o.updatedAt < :cutoff")
+    List<Order> lockArchivable(
+            @Param("ids") Collection<UUID> ids, @Param("statuses") Collection<OrderStatus> statuses,
+            @Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN :orderIds")
+    int deleteItemsByOrderIdIn(@Param("orderIds") Collection<UUID> orderIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
 }
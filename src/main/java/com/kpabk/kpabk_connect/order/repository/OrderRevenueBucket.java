@@ -0,0 +1,18 @@
+package com.kpabk.kpabk_connect.order.repository;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * One GROUP BY row of orders per outlet x status x payment status (used to build and verify the daily rollup).
+ */
+public record OrderRevenueBucket(
+        Long outletId,
+        OrderStatus status,
+        PaymentStatus paymentStatus,
+        Long orderCount,
+        BigDecimal totalAmount
+) {
+}
@@ -0,0 +1,53 @@
+package com.kpabk.kpabk_connect.order.repository;
+
+import com.kpabk.kpabk_connect.order.model.OrderRevenueDaily;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface OrderRevenueDailyRepository extends JpaRepository<OrderRevenueDaily, Long> {
+
+    List<OrderRevenueDaily> findByDay(LocalDate day);
+
+    /** Adds the delta to an existing bucket row; returns 0 when the bucket has no row yet. */
+    @Modifying
+    @Query("UPDATE OrderRevenueDaily r SET r.orderCount = r.orderCount + :count, r.totalAmount = r.totalAmount + :amount "
+            + "WHERE r.day = :day AND r.outletId = :outletId AND r.status = :status AND r.paymentStatus = :paymentStatus")
+    int addDelta(
+            @Param("day") LocalDate day,
+            @Param("outletId") Long outletId,
+            @Param("status") OrderStatus status,
+            @Param("paymentStatus") PaymentStatus paymentStatus,
+            @Param("count") long count,
+            @Param("amount") BigDecimal amount
+    );
+
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM OrderRevenueDaily r WHERE r.status = :status AND r.paymentStatus = :paymentStatus AND r.day >= :fromDay AND r.day <= :toDay")
+    BigDecimal sumTotalAmount(
+            @Param("status") OrderStatus status,
+            @Param("paymentStatus") PaymentStatus paymentStatus,
+            @Param("fromDay") LocalDate fromDay,
+            @Param("toDay") LocalDate toDay
+    );
+
+    @Query("SELECT COALESCE(SUM(r.orderCount), 0) FROM OrderRevenueDaily r WHERE r.status = :status AND r.paymentStatus = :paymentStatus AND r.day >= :fromDay AND r.day <= :toDay")
+    long sumOrderCount(
+            @Param("status") OrderStatus status,
+            @Param("paymentStatus") PaymentStatus paymentStatus,
+            @Param("fromDay") LocalDate fromDay,
+            @Param("toDay") LocalDate toDay
+    );
+
+    @Modifying
+    @Query("DELETE FROM OrderRevenueDaily r WHERE r.day >= :fromDay AND r.day <= :toDay")
+    int deleteByDayBetween(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+}
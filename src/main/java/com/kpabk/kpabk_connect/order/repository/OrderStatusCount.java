@@ -0,0 +1,13 @@
+package com.kpabk.kpabk_connect.order.repository;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+
+/**
+ * One GROUP BY row of orders per outlet x status (seeds and reconciles the in-memory status counters).
+ */
+public record OrderStatusCount(
+        Long outletId,
+        OrderStatus status,
+        Long orderCount
+) {
+}
@@ -0,0 +1,22 @@
+package com.kpabk.kpabk_connect.order.repository;
+
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Columns of an order needed to validate a status change and feed the revenue rollup, without loading items.
+ */
+public record OrderStatusSnapshot(
+        UUID id,
+        String orderNumber,
+        Long outletId,
+        OrderStatus status,
+        PaymentStatus paymentStatus,
+        BigDecimal totalAmount,
+        Instant createdAt
+) {
+}
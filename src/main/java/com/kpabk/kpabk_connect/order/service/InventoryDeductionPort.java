@@ -1,5 +1,6 @@
 package com.kpabk.kpabk_connect.order.service;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
 
@@ -11,11 +12,25 @@ import java.util.UUID;
 public interface InventoryDeductionPort {
 
     /**
-     * Request stock deduction for an order. May be async or no-op.
+     * Request stock deduction for an order. Called inside the placement transaction: throwing
+     * (e.g. {@link com.kpabk.kpabk_connect.order.exception.OutOfStockException}) rolls the order back.
      *
      * @param orderId    order UUID
      * @param outletId   outlet
      * @param productQuantities map of productId -> quantity to deduct
      */
     void deductForOrder(UUID orderId, Long outletId, Map<UUID, Integer> productQuantities);
+
+    /**
+     * Return the stock deducted for orders that were cancelled, exactly what was deducted and only once.
+     * Called inside the cancelling transaction.
+     */
+    default void releaseForOrders(Collection<UUID> orderIds) {
+    }
+
+    /**
+     * Forget what was deducted for orders that can no longer be cancelled (e.g. archived); the stock stays deducted.
+     */
+    default void discardForOrders(Collection<UUID> orderIds) {
+    }
 }
@@ -1,15 +1,17 @@
 package com.kpabk.kpabk_connect.order.service;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
 import java.util.UUID;
 
 /**
- * No-op implementation of InventoryDeductionPort until Inventory module is wired.
- * Replace with real implementation or event publisher (e.g. Kafka) when ready.
+ * No-op implementation of InventoryDeductionPort, active with order.inventory.mode=none
+ * (the default is stock reservation, see OrderInventoryIntegrationConfig).
  */
 @Component
+@ConditionalOnProperty(prefix = "order.inventory", name = "mode", havingValue = "none")
 public class NoOpInventoryDeduction implements InventoryDeductionPort {
 
     @Override
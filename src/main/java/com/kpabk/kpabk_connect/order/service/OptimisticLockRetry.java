@@ -0,0 +1,67 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs an order read-modify-write in its own transaction and re-runs it when the {@code @Version} check fails.
+ * Only for idempotent actions that re-read and re-validate the order on every attempt.
+ * <p>
+ * When the caller already has a transaction (e.g. the payment webhook), the action runs once in it: a retry cannot
+ * undo the caller's other work, so the conflict propagates and the whole transaction rolls back.
+ * After the last attempt the {@link OptimisticLockingFailureException} propagates and is answered with 409.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MS = 10;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Optimistic lock conflict on attempt {}/{}, retrying: {}", attempt, MAX_ATTEMPTS, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static void backoff(int attempt) {
+        long delay = BASE_BACKOFF_MS * attempt + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MS);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying order update", e);
+        }
+    }
+}
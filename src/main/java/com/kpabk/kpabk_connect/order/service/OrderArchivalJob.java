@@ -0,0 +1,48 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.common.lease.LeaseService;
+import com.kpabk.kpabk_connect.order.config.OrderArchiveProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Periodically moves closed orders older than {@code order.archive.age} to the archive tables, one batch per
+ * transaction so row locks stay short. Runs on the node holding the {@value #LEASE_NAME} lease.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchivalJob {
+
+    static final String LEASE_NAME = "order-archival";
+
+    private final OrderArchiveService archiveService;
+    private final OrderArchiveProperties properties;
+    private final LeaseService leaseService;
+
+    @Scheduled(fixedDelayString = "${order.archive.interval:PT15M}", initialDelayString = "${order.archive.initial-delay:PT1M}")
+    public void archiveClosedOrders() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(properties.getAge());
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            if (!leaseService.tryAcquire(LEASE_NAME, properties.getLeaseTtl())) {
+                break;
+            }
+            int moved = archiveService.archiveBatch(cutoff, properties.getBatchSize());
+            total += moved;
+            if (moved < properties.getBatchSize()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} closed orders last updated before {}", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.dto.OrderItemResponse;
+import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.order.dto.OrderSummaryResponse;
+import com.kpabk.kpabk_connect.order.model.ArchivedOrder;
+import com.kpabk.kpabk_connect.order.model.ArchivedOrderItem;
+import com.kpabk.kpabk_connect.order.model.Order;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import com.kpabk.kpabk_connect.order.repository.ArchivedOrderItemRepository;
+import com.kpabk.kpabk_connect.order.repository.ArchivedOrderRepository;
+import com.kpabk.kpabk_connect.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Cold storage for closed orders. {@link #archiveBatch} moves orders from the hot tables; the read methods serve
+ * {@link OrderServiceImpl} when an order is no longer in {@code orders}.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveService {
+
+    /** Only orders that can no longer change status are archived. */
+    static final Set<OrderStatus> ARCHIVABLE_STATUSES = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+    private final OrderRevenueRollupService revenueRollupService;
+    private final InventoryDeductionPort inventoryDeductionPort;
+
+    /**
+     * Moves up to {@code batchSize} closed orders last updated before {@code cutoff}: copy, then delete, in one
+     * transaction and under row locks. The revenue rollup is unaffected; it keeps counting archived orders.
+     *
+     * @return number of orders archived
+     */
+    @Transactional
+    public int archiveBatch(Instant cutoff, int batchSize) {
+        List<UUID> candidates = orderRepository.findArchivableIds(ARCHIVABLE_STATUSES, cutoff, PageRequest.ofSize(batchSize));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = orderRepository.lockArchivable(candidates, ARCHIVABLE_STATUSES, cutoff).stream()
+                .map(Order::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedOrderRepository.copyFromOrders(ids);
+        archivedOrderItemRepository.copyFromOrderItems(ids);
+        orderRepository.deleteItemsByOrderIdIn(ids);
+        inventoryDeductionPort.discardForOrders(ids);
+        return orderRepository.deleteByIdIn(ids);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> findById(UUID id) {
+        return archivedOrderRepository.findById(id).map(order -> toResponses(List.of(order)).get(0));
+    }
+
+    @Transactional(readOnly = true)
+    public long countByCustomerId(Long customerId, OrderStatus status) {
+        if (status != null && !ARCHIVABLE_STATUSES.contains(status)) {
+            return 0;
+        }
+        return archivedOrderRepository.countByCustomerId(customerId, status);
+    }
+
+    /** Archived orders of a customer, newest first, starting at {@code offset} (a multiple of {@code limit} or less). */
+    @Transactional(readOnly = true)
+    public List<OrderResponse> findByCustomerId(Long customerId, OrderStatus status, long offset, int limit) {
+        if (limit <= 0 || (status != null && !ARCHIVABLE_STATUSES.contains(status))) {
+            return List.of();
+        }
+        return toResponses(window(offset, limit,
+                page -> archivedOrderRepository.findByCustomerId(customerId, status, PageRequest.of(page, limit))));
+    }
+
+    /** Same window as {@link #findByCustomerId}, without line items. */
+    @Transactional(readOnly = true)
+    public List<OrderSummaryResponse> findSummariesByCustomerId(Long customerId, OrderStatus status, long offset, int limit) {
+        if (limit <= 0 || (status != null && !ARCHIVABLE_STATUSES.contains(status))) {
+            return List.of();
+        }
+        return window(offset, limit,
+                page -> archivedOrderRepository.findSummariesByCustomerId(customerId, status, PageRequest.of(page, limit)));
+    }
+
+    /**
+     * Applies a late payment status change (e.g. a refund) to an archived order.
+     *
+     * @return false if the order is not in the archive either
+     */
+    @Transactional
+    public boolean updatePaymentStatus(UUID orderId, PaymentStatus paymentStatus) {
+        Optional<ArchivedOrder> found = archivedOrderRepository.findById(orderId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        ArchivedOrder order = found.get();
+        PaymentStatus previousPaymentStatus = order.getPaymentStatus();
+        if (previousPaymentStatus != paymentStatus) {
+            order.setPaymentStatus(paymentStatus);
+            order.setUpdatedAt(Instant.now());
+            order.setVersion(order.getVersion() != null ? order.getVersion() + 1 : 1L);
+            archivedOrderRepository.save(order);
+            revenueRollupService.recordChange(order, previousPaymentStatus);
+        }
+        return true;
+    }
+
+    /** Reads one aligned page (or two, when the offset falls inside one) and cuts the requested window out of it. */
+    private static <T> List<T> window(long offset, int limit, IntFunction<List<T>> pageLoader) {
+        int page = (int) (offset / limit);
+        int skip = (int) (offset % limit);
+        List<T> rows = new ArrayList<>(pageLoader.apply(page));
+        if (skip > 0 && rows.size() == limit) {
+            rows.addAll(pageLoader.apply(page + 1));
+        }
+        return rows.subList(Math.min(skip, rows.size()), Math.min(skip + limit, rows.size()));
+    }
+
+    private List<OrderResponse> toResponses(List<ArchivedOrder> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, List<OrderItemResponse>> itemsByOrder = archivedOrderItemRepository
+                .findByOrderIdIn(orders.stream().map(ArchivedOrder::getId).toList()).stream()
+                .collect(Collectors.groupingBy(ArchivedOrderItem::getOrderId,
+                        Collectors.mapping(this::mapItemToResponse, Collectors.toList())));
+        return orders.stream()
+                .map(order -> mapToResponse(order, itemsByOrder.getOrDefault(order.getId(), List.of())))
+                .toList();
+    }
+
+    private OrderResponse mapToResponse(ArchivedOrder order, List<OrderItemResponse> items) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .outletId(order.getOutletId())
+                .customerId(order.getCustomerId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .paymentStatus(order.getPaymentStatus())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .version(order.getVersion())
+                .items(items)
+                .build();
+    }
+
+    private OrderItemResponse mapItemToResponse(ArchivedOrderItem item) {
+        return OrderItemResponse.builder()
+                .id(item.getId())
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .quantity(item.getQuantity())
+                .priceAtOrderTime(item.getPriceAtOrderTime())
+                .subtotal(item.getSubtotal())
+                .build();
+    }
+}
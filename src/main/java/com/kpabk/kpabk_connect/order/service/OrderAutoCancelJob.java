@@ -0,0 +1,67 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.common.lease.LeaseService;
+import com.kpabk.kpabk_connect.order.config.OrderAutoCancelProperties;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import com.kpabk.kpabk_connect.order.repository.OrderRepository;
+import com.kpabk.kpabk_connect.order.repository.OrderStatusSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Cancels PENDING orders that are still UNPAID {@code order.auto-cancel.ttl} after creation (abandoned checkouts),
+ * releasing their reserved stock. Walks the candidates oldest first with a (createdAt, id) keyset, one chunk per
+ * transaction, so the backlog is never loaded at once. Runs on the node holding the {@value #LEASE_NAME} lease.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderAutoCancelJob {
+
+    static final String LEASE_NAME = "order-auto-cancel";
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final OrderAutoCancelProperties properties;
+    private final LeaseService leaseService;
+
+    @Scheduled(fixedDelayString = "${order.auto-cancel.interval:PT1M}", initialDelayString = "${order.auto-cancel.initial-delay:PT30S}")
+    public void cancelStaleOrders() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(properties.getTtl());
+        Pageable limit = PageRequest.ofSize(properties.getChunkSize());
+        OrderStatusSnapshot last = null;
+        int cancelled = 0;
+        for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+            if (!leaseService.tryAcquire(LEASE_NAME, properties.getLeaseTtl())) {
+                break;
+            }
+            List<OrderStatusSnapshot> candidates = last == null
+                    ? orderRepository.findFirstStaleKeyset(OrderStatus.PENDING, PaymentStatus.UNPAID, cutoff, limit)
+                    : orderRepository.findNextStaleKeyset(OrderStatus.PENDING, PaymentStatus.UNPAID, cutoff,
+                            last.createdAt(), last.id(), limit);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            cancelled += orderService.cancelStaleUnpaidOrders(
+                    candidates.stream().map(OrderStatusSnapshot::id).toList(), cutoff);
+            if (candidates.size() < properties.getChunkSize()) {
+                break;
+            }
+            last = candidates.get(candidates.size() - 1);
+        }
+        if (cancelled > 0) {
+            log.info("Auto-cancelled {} unpaid orders created before {}", cancelled, cutoff);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.exception.OrderValidationException;
+import com.kpabk.kpabk_connect.order.model.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in an order listing sorted by (createdAt DESC, id DESC). Encoded as an opaque URL-safe token.
+ */
+record OrderCursor(Instant createdAt, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    static OrderCursor of(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @return decoded cursor, or null for a blank token (first slice) */
+    static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            return new OrderCursor(Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new OrderValidationException("Invalid cursor");
+        }
+    }
+}
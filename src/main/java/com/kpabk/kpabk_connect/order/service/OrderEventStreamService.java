@@ -0,0 +1,306 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kpabk.kpabk_connect.order.config.OrderEventStreamProperties;
+import com.kpabk.kpabk_connect.order.dto.OrderBoardEvent;
+import com.kpabk.kpabk_connect.order.event.OrderChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live order board: pushes committed order changes to outlet tablets over Server-Sent Events.
+ * <p>
+ * Each outlet has a channel with a monotonically increasing sequence and a short replay ring, so a reconnecting
+ * client sending {@code Last-Event-ID} receives what it missed; if the gap is no longer in the ring it gets a
+ * {@code resync} event and should reload the order list once. Event ids are {@code <epoch>-<sequence>}, with a random
+ * epoch per process: sequences restart after a restart (and differ between nodes), so an id from another epoch always
+ * gets {@code resync} instead of a replay of unrelated events that happen to carry higher numbers.
+ * Connections hold no thread while idle: events go into a small bounded per-connection queue that a shared sender
+ * pool drains. A connection whose queue overflows is closed (the client resumes via Last-Event-ID).
+ */
+@Service
+@Slf4j
+public class OrderEventStreamService {
+
+    static final String READY_EVENT = "ready";
+    static final String RESYNC_EVENT = "resync";
+    private static final StoredEvent HEARTBEAT = new StoredEvent(-1, null, null);
+
+    private final OrderEventStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sender;
+    private final ConcurrentHashMap<Long, OutletChannel> channels = new ConcurrentHashMap<>();
+    /** Prefix of every event id sent by this process. */
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    public OrderEventStreamService(OrderEventStreamProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(properties.getSenderThreads(), r -> {
+            Thread thread = new Thread(r, "order-sse-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream for the outlet. The first event is {@code ready} (or {@code resync}) carrying the current event
+     * id, followed by any events after {@code lastEventId} still in the replay ring.
+     */
+    public SseEmitter subscribe(Long outletId, String lastEventId) {
+        OutletChannel channel = channels.computeIfAbsent(outletId, id -> new OutletChannel());
+        SseEmitter emitter = newEmitter();
+        Connection connection = new Connection(emitter);
+        emitter.onCompletion(() -> channel.remove(connection));
+        emitter.onTimeout(() -> {
+            channel.remove(connection);
+            emitter.complete();
+        });
+        emitter.onError(e -> channel.remove(connection));
+        channel.open(connection, parseEventId(lastEventId));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        OutletChannel channel = channels.get(event.outletId());
+        if (channel == null) {
+            return;
+        }
+        OrderBoardEvent data = OrderBoardEvent.builder()
+                .orderId(event.orderId())
+                .orderNumber(event.orderNumber())
+                .outletId(event.outletId())
+                .status(event.status())
+                .previousStatus(event.previousStatus())
+                .paymentStatus(event.paymentStatus())
+                .previousPaymentStatus(event.previousPaymentStatus())
+                .totalAmount(event.totalAmount())
+                .occurredAt(event.occurredAt().toString())
+                .build();
+        try {
+            channel.publish(event.type().name().toLowerCase(Locale.ROOT).replace('_', '-'),
+                    objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize order board event for order {}: {}", event.orderId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.events.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        channels.values().forEach(OutletChannel::heartbeat);
+    }
+
+    /** Open streams per outlet (for monitoring). */
+    public int connectionCount(Long outletId) {
+        OutletChannel channel = channels.get(outletId);
+        return channel != null ? channel.size() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(OutletChannel::closeAll);
+        sender.shutdownNow();
+    }
+
+    /** One emitter per connection; tests override it to capture what is sent. */
+    SseEmitter newEmitter() {
+        return new SseEmitter(properties.getEmitterTimeout().toMillis());
+    }
+
+    /** Sequence of an event id from this process; -1 (resync) for another epoch or a malformed id, null if absent. */
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        String value = lastEventId.trim();
+        int separator = value.lastIndexOf('-');
+        if (separator <= 0 || !value.substring(0, separator).equals(epoch)) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(value.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private record StoredEvent(long id, String name, String data) {
+    }
+
+    private final class OutletChannel {
+
+        private final ArrayDeque<StoredEvent> ring = new ArrayDeque<>();
+        private final List<Connection> connections = new ArrayList<>();
+        private long lastId;
+
+        synchronized void open(Connection connection, Long lastEventId) {
+            if (connections.size() >= properties.getMaxConnectionsPerOutlet()) {
+                connections.remove(0).close();
+            }
+            connections.add(connection);
+            List<StoredEvent> replay = replayAfter(lastEventId);
+            if (replay == null || replay.size() >= properties.getConnectionBufferSize()) {
+                connection.offer(new StoredEvent(lastId, lastEventId == null ? READY_EVENT : RESYNC_EVENT, "{}"));
+                return;
+            }
+            if (replay.isEmpty()) {
+                connection.offer(new StoredEvent(lastId, READY_EVENT, "{}"));
+            }
+            replay.forEach(connection::offer);
+        }
+
+        /** Events after {@code lastEventId}, or null when there is no usable resume point. */
+        private List<StoredEvent> replayAfter(Long lastEventId) {
+            if (lastEventId == null || lastEventId < 0 || lastEventId > lastId) {
+                return null;
+            }
+            if (lastEventId < lastId && (ring.isEmpty() || ring.peekFirst().id() > lastEventId + 1)) {
+                return null;
+            }
+            List<StoredEvent> replay = new ArrayList<>();
+            for (StoredEvent event : ring) {
+                if (event.id() > lastEventId) {
+                    replay.add(event);
+                }
+            }
+            return replay;
+        }
+
+        synchronized void publish(String name, String data) {
+            StoredEvent event = new StoredEvent(++lastId, name, data);
+            ring.addLast(event);
+            if (ring.size() > properties.getReplaySize()) {
+                ring.removeFirst();
+            }
+            List<Connection> overflowed = null;
+            for (Connection connection : connections) {
+                if (!connection.offer(event)) {
+                    if (overflowed == null) {
+                        overflowed = new ArrayList<>();
+                    }
+                    overflowed.add(connection);
+                }
+            }
+            if (overflowed != null) {
+                connections.removeAll(overflowed);
+                overflowed.forEach(Connection::close);
+            }
+        }
+
+        void heartbeat() {
+            List<Connection> snapshot;
+            synchronized (this) {
+                snapshot = List.copyOf(connections);
+            }
+            // A full queue already has data on its way; skipping the heartbeat is fine.
+            snapshot.forEach(connection -> connection.offer(HEARTBEAT));
+        }
+
+        synchronized void remove(Connection connection) {
+            connection.closed = true;
+            connections.remove(connection);
+        }
+
+        synchronized int size() {
+            return connections.size();
+        }
+
+        synchronized void closeAll() {
+            List<Connection> open = List.copyOf(connections);
+            connections.clear();
+            open.forEach(Connection::close);
+        }
+    }
+
+    private final class Connection {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<StoredEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(properties.getConnectionBufferSize());
+        }
+
+        /** @return false if the queue is full (client too slow) */
+        boolean offer(StoredEvent event) {
+            if (closed) {
+                return true;
+            }
+            if (!queue.offer(event)) {
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                StoredEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(eventId(event.id())).name(event.name()).data(event.data()));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Order board stream closed: {}", e.getMessage());
+                close();
+            } finally {
+                scheduled.set(false);
+                if (!closed && !queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ignored) {
+                // already completed
+            }
+        }
+    }
+}
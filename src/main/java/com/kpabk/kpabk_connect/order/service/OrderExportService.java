@@ -0,0 +1,274 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kpabk.kpabk_connect.order.dto.OrderExportFormat;
+import com.kpabk.kpabk_connect.order.exception.OrderValidationException;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams orders and their line items as CSV or NDJSON without materialising the result set.
+ * Rows are read through a forward-only JDBC cursor with a fixed fetch size inside a read-only transaction
+ * (some drivers, e.g. PostgreSQL, only honour the fetch size with auto-commit off), and written straight to the response.
+ */
+@Service
+public class OrderExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String EXPORT_SQL = """
+            SELECT o.id, o.order_number, o.outlet_id, o.customer_id, o.status, o.payment_status,
+                   o.total_amount, o.item_count, o.created_at, o.updated_at,
+                   i.id AS item_id, i.product_id, i.product_name, i.quantity, i.price_at_order_time, i.subtotal
+            FROM orders o
+            LEFT JOIN order_items i ON i.order_id = o.id
+            WHERE o.created_at >= ? AND o.created_at <= ?
+            """;
+
+    private static final String CSV_HEADER = "order_id,order_number,outlet_id,customer_id,status,payment_status,"
+            + "total_amount,item_count,created_at,updated_at,item_id,product_id,product_name,quantity,price_at_order_time,subtotal";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Validates the filter eagerly (so bad input still gets a 400) and returns a body that runs the query when written.
+     * Orders are emitted in (created_at, id) order; outletId and status are optional filters.
+     */
+    public StreamingResponseBody export(OrderExportFormat format, Instant fromDate, Instant toDate,
+                                        Long outletId, OrderStatus status) {
+        if (fromDate == null || toDate == null) {
+            throw new OrderValidationException("fromDate and toDate are required for export");
+        }
+        if (fromDate.isAfter(toDate)) {
+            throw new OrderValidationException("fromDate must not be after toDate");
+        }
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.from(fromDate));
+        args.add(Timestamp.from(toDate));
+        if (outletId != null) {
+            sql.append(" AND o.outlet_id = ?");
+            args.add(outletId);
+        }
+        if (status != null) {
+            sql.append(" AND o.status = ?");
+            args.add(status.name());
+        }
+        sql.append(" ORDER BY o.created_at, o.id, i.id");
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            ExportRowHandler handler = format == OrderExportFormat.NDJSON
+                    ? new NdjsonRowHandler(writer)
+                    : new CsvRowHandler(writer);
+            try {
+                readOnlyTransaction.executeWithoutResult(tx ->
+                        jdbcTemplate.query(sql.toString(), handler, args.toArray()));
+                handler.finish();
+                writer.flush();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private abstract static class ExportRowHandler implements RowCallbackHandler {
+
+        protected final Writer writer;
+
+        ExportRowHandler(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        protected abstract void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException {
+        }
+    }
+
+    /** One CSV line per line item; orders without items get a single line with empty item columns. */
+    private static final class CsvRowHandler extends ExportRowHandler {
+
+        private boolean headerWritten;
+
+        CsvRowHandler(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        protected void write(ResultSet rs) throws SQLException, IOException {
+            if (!headerWritten) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                headerWritten = true;
+            }
+            writer.write(rs.getString("id"));
+            field(rs.getString("order_number"));
+            field(rs.getString("outlet_id"));
+            field(rs.getString("customer_id"));
+            field(rs.getString("status"));
+            field(rs.getString("payment_status"));
+            field(plain(rs.getBigDecimal("total_amount")));
+            field(rs.getString("item_count"));
+            field(instant(rs.getTimestamp("created_at")));
+            field(instant(rs.getTimestamp("updated_at")));
+            field(rs.getString("item_id"));
+            field(rs.getString("product_id"));
+            field(rs.getString("product_name"));
+            field(rs.getString("quantity"));
+            field(plain(rs.getBigDecimal("price_at_order_time")));
+            field(plain(rs.getBigDecimal("subtotal")));
+            writer.write('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (!headerWritten) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+        }
+
+        private void field(String value) throws IOException {
+            writer.write(',');
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+    }
+
+    /**
+     * One JSON object per order with its items nested. Rows arrive grouped by order, so only the current
+     * order is held open at a time.
+     */
+    private final class NdjsonRowHandler extends ExportRowHandler {
+
+        private final JsonGenerator generator;
+        private String currentOrderId;
+
+        NdjsonRowHandler(Writer writer) {
+            super(writer);
+            try {
+                this.generator = objectMapper.getFactory().createGenerator(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.generator.setRootValueSeparator(null);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        protected void write(ResultSet rs) throws SQLException, IOException {
+            String orderId = rs.getString("id");
+            if (!orderId.equals(currentOrderId)) {
+                closeCurrentOrder();
+                currentOrderId = orderId;
+                generator.writeStartObject();
+                generator.writeStringField("id", orderId);
+                generator.writeStringField("orderNumber", rs.getString("order_number"));
+                writeLong("outletId", rs, "outlet_id");
+                writeLong("customerId", rs, "customer_id");
+                generator.writeStringField("status", rs.getString("status"));
+                generator.writeStringField("paymentStatus", rs.getString("payment_status"));
+                generator.writeFieldName("totalAmount");
+                generator.writeNumber(rs.getBigDecimal("total_amount"));
+                writeLong("itemCount", rs, "item_count");
+                generator.writeStringField("createdAt", instant(rs.getTimestamp("created_at")));
+                generator.writeStringField("updatedAt", instant(rs.getTimestamp("updated_at")));
+                generator.writeArrayFieldStart("items");
+            }
+            String itemId = rs.getString("item_id");
+            if (itemId != null) {
+                generator.writeStartObject();
+                generator.writeStringField("id", itemId);
+                generator.writeStringField("productId", rs.getString("product_id"));
+                generator.writeStringField("productName", rs.getString("product_name"));
+                generator.writeNumberField("quantity", rs.getInt("quantity"));
+                generator.writeFieldName("priceAtOrderTime");
+                generator.writeNumber(rs.getBigDecimal("price_at_order_time"));
+                generator.writeFieldName("subtotal");
+                generator.writeNumber(rs.getBigDecimal("subtotal"));
+                generator.writeEndObject();
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            closeCurrentOrder();
+            generator.close();
+        }
+
+        private void closeCurrentOrder() throws IOException {
+            if (currentOrderId != null) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.flush();
+                writer.write('\n');
+            }
+        }
+
+        private void writeLong(String field, ResultSet rs, String column) throws SQLException, IOException {
+            long value = rs.getLong(column);
+            if (rs.wasNull()) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, value);
+            }
+        }
+    }
+
+    private static String instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant().toString() : null;
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.common.cache.BoundedTtlCache;
+import com.kpabk.kpabk_connect.order.config.OrderFactsProperties;
+import com.kpabk.kpabk_connect.order.event.OrderChangedEvent;
+import com.kpabk.kpabk_connect.order.repository.ArchivedOrderRepository;
+import com.kpabk.kpabk_connect.order.repository.OrderFacts;
+import com.kpabk.kpabk_connect.order.repository.OrderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read model for callers that need an order's amount, customer or status but not its items (payment ports).
+ * One-column-set projection per miss, cached in memory; entries are dropped after every committed order change.
+ * Archived orders are looked up in the archive.
+ */
+@Service
+public class OrderFactsService {
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final BoundedTtlCache<UUID, OrderFacts> cache;
+
+    public OrderFactsService(
+            OrderRepository orderRepository,
+            ArchivedOrderRepository archivedOrderRepository,
+            OrderFactsProperties properties
+    ) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.cache = new BoundedTtlCache<>(properties.getCacheMaxEntries(), properties.getCacheTtl());
+    }
+
+    /** @return the order's facts, empty if it exists in neither the hot table nor the archive (not cached) */
+    public Optional<OrderFacts> find(UUID orderId) {
+        return Optional.ofNullable(cache.get(orderId, this::load));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        cache.invalidate(event.orderId());
+    }
+
+    private OrderFacts load(UUID orderId) {
+        return orderRepository.findFactsById(orderId)
+                .or(() -> archivedOrderRepository.findFactsById(orderId))
+                .orElse(null);
+    }
+}
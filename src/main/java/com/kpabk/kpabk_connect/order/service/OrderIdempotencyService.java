@@ -0,0 +1,206 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.common.cache.BoundedTtlCache;
+import com.kpabk.kpabk_connect.order.config.OrderIdempotencyProperties;
+import com.kpabk.kpabk_connect.order.dto.CreateOrderRequest;
+import com.kpabk.kpabk_connect.order.dto.OrderItemRequest;
+import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.order.exception.IdempotencyConflictException;
+import com.kpabk.kpabk_connect.order.exception.IdempotencyKeyMismatchException;
+import com.kpabk.kpabk_connect.order.exception.OrderValidationException;
+import com.kpabk.kpabk_connect.order.model.IdempotencyKeyStatus;
+import com.kpabk.kpabk_connect.order.model.OrderIdempotencyKey;
+import com.kpabk.kpabk_connect.order.repository.OrderIdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Idempotency-Key support for order placement.
+ * <p>
+ * The first request claims the key by inserting an IN_PROGRESS row in its own short transaction (the unique
+ * constraint decides the winner, no row lock is held while the order is placed). The order and the COMPLETED marker
+ * are then committed together, so a key maps to exactly one order. Replays with the same body get the original
+ * order back; a concurrent duplicate gets 409, the same key with a different body 422. If placement fails the claim
+ * is released so the client can retry. Completed keys are cached in memory in front of the table.
+ */
+@Service
+@Slf4j
+public class OrderIdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final OrderIdempotencyKeyRepository keyRepository;
+    private final OrderService orderService;
+    private final OrderIdempotencyProperties properties;
+    private final TransactionTemplate newTransaction;
+    private final BoundedTtlCache<ScopedKey, CompletedKey> completedKeys;
+
+    public OrderIdempotencyService(
+            OrderIdempotencyKeyRepository keyRepository,
+            OrderService orderService,
+            OrderIdempotencyProperties properties,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.keyRepository = keyRepository;
+        this.orderService = orderService;
+        this.properties = properties;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.completedKeys = new BoundedTtlCache<>(properties.getCacheMaxEntries(), properties.getTtl());
+    }
+
+    /** Outcome of an idempotent placement; {@code replayed} is true when the order was created by an earlier request. */
+    public record Placement(OrderResponse order, boolean replayed) {
+    }
+
+    public Placement placeOrder(CreateOrderRequest request, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new OrderValidationException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        ScopedKey key = new ScopedKey(scopeOf(request), idempotencyKey);
+        String requestHash = hash(request);
+
+        CompletedKey cached = completedKeys.get(key);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        Claim claim;
+        try {
+            claim = newTransaction.execute(tx -> insertClaim(key, requestHash));
+        } catch (DataIntegrityViolationException e) {
+            OrderIdempotencyKey existing = newTransaction.execute(tx ->
+                    keyRepository.findByScopeAndIdempotencyKey(key.scope(), key.key()).orElse(null));
+            if (existing == null) {
+                throw new IdempotencyConflictException("Request with this Idempotency-Key is being processed; retry later");
+            }
+            if (existing.getStatus() == IdempotencyKeyStatus.COMPLETED) {
+                CompletedKey completed = new CompletedKey(existing.getRequestHash(), existing.getOrderId());
+                completedKeys.put(key, completed);
+                return replay(completed, requestHash);
+            }
+            claim = takeOverStaleClaim(existing, requestHash);
+        }
+
+        Claim ownedClaim = claim;
+        try {
+            OrderResponse created = newTransaction.execute(tx -> {
+                OrderResponse response = orderService.placeOrder(request);
+                int marked = keyRepository.markCompleted(ownedClaim.id(), ownedClaim.claimedAt(), response.getId(),
+                        IdempotencyKeyStatus.IN_PROGRESS, IdempotencyKeyStatus.COMPLETED);
+                if (marked == 0) {
+                    // Our claim was considered stale and taken over; roll back so only one order exists for the key.
+                    throw new IdempotencyConflictException("Request with this Idempotency-Key is being processed; retry later");
+                }
+                return response;
+            });
+            completedKeys.put(key, new CompletedKey(requestHash, created.getId()));
+            return new Placement(created, false);
+        } catch (RuntimeException e) {
+            releaseClaim(ownedClaim);
+            throw e;
+        }
+    }
+
+    /** Removes keys past their TTL. */
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = keyRepository.deleteExpired(Instant.now());
+        if (removed > 0) {
+            log.debug("Purged {} expired order idempotency keys", removed);
+        }
+    }
+
+    private Claim insertClaim(ScopedKey key, String requestHash) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        OrderIdempotencyKey claim = OrderIdempotencyKey.builder()
+                .scope(key.scope())
+                .idempotencyKey(key.key())
+                .requestHash(requestHash)
+                .status(IdempotencyKeyStatus.IN_PROGRESS)
+                .claimedAt(now)
+                .expiresAt(now.plus(properties.getTtl()))
+                .build();
+        return new Claim(keyRepository.saveAndFlush(claim).getId(), now);
+    }
+
+    private Claim takeOverStaleClaim(OrderIdempotencyKey existing, String requestHash) {
+        if (!existing.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different order request");
+        }
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Integer taken = newTransaction.execute(tx -> keyRepository.takeOverStaleClaim(existing.getId(), requestHash,
+                IdempotencyKeyStatus.IN_PROGRESS, now.minus(properties.getInFlightTimeout()), now));
+        if (taken == null || taken == 0) {
+            throw new IdempotencyConflictException("Request with this Idempotency-Key is being processed; retry later");
+        }
+        log.warn("Took over abandoned idempotency claim {} ({})", existing.getId(), existing.getScope());
+        return new Claim(existing.getId(), now);
+    }
+
+    private Placement replay(CompletedKey completed, String requestHash) {
+        if (!completed.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different order request");
+        }
+        return new Placement(orderService.getById(completed.orderId()), true);
+    }
+
+    private void releaseClaim(Claim claim) {
+        try {
+            newTransaction.executeWithoutResult(tx ->
+                    keyRepository.deleteClaim(claim.id(), claim.claimedAt(), IdempotencyKeyStatus.IN_PROGRESS));
+        } catch (RuntimeException e) {
+            // The claim goes stale after the in-flight timeout; a retry can take it over.
+            log.warn("Could not release idempotency claim {}: {}", claim.id(), e.getMessage());
+        }
+    }
+
+    /** Keys are scoped to the customer, or to the outlet for orders placed without a customer. */
+    private static String scopeOf(CreateOrderRequest request) {
+        return request.getCustomerId() != null
+                ? "customer:" + request.getCustomerId()
+                : "outlet:" + request.getOutletId();
+    }
+
+    private static String hash(CreateOrderRequest request) {
+        StringBuilder canonical = new StringBuilder()
+                .append(request.getOutletId()).append('|')
+                .append(request.getCustomerId()).append('|');
+        if (request.getItems() != null) {
+            for (OrderItemRequest item : request.getItems()) {
+                canonical.append(item.getProductId()).append(':').append(item.getQuantity()).append(';');
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record ScopedKey(String scope, String key) {
+    }
+
+    private record CompletedKey(String requestHash, UUID orderId) {
+    }
+
+    /** A claim we own: the row id plus the claimedAt we wrote, which later updates use as an ownership check. */
+    private record Claim(UUID id, Instant claimedAt) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.kpabk.kpabk_connect.order.service;
+
+/**
+ * Produces order numbers. Implementations must guarantee uniqueness without a database round trip,
+ * across threads and across nodes sharing the same orders table.
+ */
+public interface OrderNumberGenerator {
+
+    String nextOrderNumber();
+}
@@ -0,0 +1,348 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.dto.RevenueRollupCheckResponse;
+import com.kpabk.kpabk_connect.order.model.ArchivedOrder;
+import com.kpabk.kpabk_connect.order.model.Order;
+import com.kpabk.kpabk_connect.order.model.OrderRevenueDaily;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import com.kpabk.kpabk_connect.order.repository.ArchivedOrderRepository;
+import com.kpabk.kpabk_connect.order.repository.OrderRepository;
+import com.kpabk.kpabk_connect.order.repository.OrderRevenueBucket;
+import com.kpabk.kpabk_connect.order.repository.OrderRevenueDailyRepository;
+import com.kpabk.kpabk_connect.order.repository.OrderStatusSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Maintains the daily revenue rollup (order_revenue_daily) and answers revenue summaries from it.
+ * <p>
+ * Changes are collected per transaction and written just before commit as one UPDATE per touched bucket, in a fixed
+ * key order, so bucket rows are locked only for the commit itself and concurrent writers cannot deadlock.
+ * A missing bucket row is inserted in the order's own transaction behind a savepoint. When a concurrent first writer
+ * inserted it meanwhile, the unique key rejects the insert, the savepoint is rolled back and the delta is applied
+ * as an UPDATE to that writer's row.
+ * Days are UTC calendar days of the order's creation time. Archived orders stay counted; raw aggregates read both
+ * the hot and the archive table.
+ */
+@Service
+@Slf4j
+public class OrderRevenueRollupService {
+
+    private static final Object PENDING_DELTAS_KEY = new Object();
+    /** Standard SQLSTATE for a unique key violation (H2, PostgreSQL). */
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String INSERT_BUCKET = "INSERT INTO order_revenue_daily "
+            + "(revenue_day, outlet_id, status, payment_status, order_count, total_amount) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final OrderRevenueDailyRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    /** Runs on the connection bound to the current transaction; failed statements do not mark it rollback-only. */
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderRevenueRollupService(
+            OrderRevenueDailyRepository rollupRepository,
+            OrderRepository orderRepository,
+            ArchivedOrderRepository archivedOrderRepository,
+            DataSource dataSource
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Records that an order was created (previous status/payment status null) or moved between buckets.
+     * Must be called inside the transaction that changes the order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Order order, OrderStatus previousStatus, PaymentStatus previousPaymentStatus) {
+        recordChange(order.getCreatedAt(), order.getOutletId(), order.getTotalAmount(),
+                previousStatus, previousPaymentStatus, order.getStatus(), order.getPaymentStatus());
+    }
+
+    /** Records a status change applied by a bulk UPDATE, where only the pre-update snapshot is loaded. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(OrderStatusSnapshot snapshot, OrderStatus newStatus) {
+        recordChange(snapshot.createdAt(), snapshot.outletId(), snapshot.totalAmount(),
+                snapshot.status(), snapshot.paymentStatus(), newStatus, snapshot.paymentStatus());
+    }
+
+    /** Records a late payment status change of an archived order (its status no longer changes). */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(ArchivedOrder order, PaymentStatus previousPaymentStatus) {
+        recordChange(order.getCreatedAt(), order.getOutletId(), order.getTotalAmount(),
+                order.getStatus(), previousPaymentStatus, order.getStatus(), order.getPaymentStatus());
+    }
+
+    private void recordChange(Instant createdAt, Long outletId, BigDecimal totalAmount,
+                              OrderStatus previousStatus, PaymentStatus previousPaymentStatus,
+                              OrderStatus status, PaymentStatus paymentStatus) {
+        if (previousStatus == status && previousPaymentStatus == paymentStatus) {
+            return;
+        }
+        LocalDate day = dayOf(createdAt);
+        BigDecimal amount = totalAmount != null ? totalAmount : BigDecimal.ZERO;
+        if (previousStatus != null && previousPaymentStatus != null) {
+            addPendingDelta(new BucketKey(day, outletId, previousStatus, previousPaymentStatus), -1, amount.negate());
+        }
+        addPendingDelta(new BucketKey(day, outletId, status, paymentStatus), 1, amount);
+    }
+
+    /** Order count and revenue for one status/payment pair: whole days from the rollup, partial edge days from orders. */
+    @Transactional(readOnly = true)
+    public RevenueTotals summarize(Instant from, Instant to, OrderStatus status, PaymentStatus paymentStatus) {
+        LocalDate firstFullDay = dayOf(from);
+        if (!startOf(firstFullDay).equals(from)) {
+            firstFullDay = firstFullDay.plusDays(1);
+        }
+        LocalDate lastFullDay = dayOf(to).minusDays(1);
+        Instant toExclusive = to.plusNanos(1);
+        if (firstFullDay.isAfter(lastFullDay)) {
+            return rawTotals(from, toExclusive, status, paymentStatus);
+        }
+        RevenueTotals head = rawTotals(from, startOf(firstFullDay), status, paymentStatus);
+        RevenueTotals tail = rawTotals(startOf(lastFullDay.plusDays(1)), toExclusive, status, paymentStatus);
+        RevenueTotals days = new RevenueTotals(
+                rollupRepository.sumOrderCount(status, paymentStatus, firstFullDay, lastFullDay),
+                rollupRepository.sumTotalAmount(status, paymentStatus, firstFullDay, lastFullDay));
+        return head.plus(days).plus(tail);
+    }
+
+    /**
+     * Backfill: replaces the rollup rows of the given days with a fresh aggregate of the orders table.
+     *
+     * @return number of bucket rows written
+     */
+    @Transactional
+    public int rebuild(LocalDate fromDay, LocalDate toDay) {
+        rollupRepository.deleteByDayBetween(fromDay, toDay);
+        int written = 0;
+        for (LocalDate day = fromDay; !day.isAfter(toDay); day = day.plusDays(1)) {
+            for (OrderRevenueBucket bucket : rawBuckets(day)) {
+                rollupRepository.save(OrderRevenueDaily.builder()
+                        .day(day)
+                        .outletId(bucket.outletId())
+                        .status(bucket.status())
+                        .paymentStatus(bucket.paymentStatus())
+                        .orderCount(bucket.orderCount())
+                        .totalAmount(bucket.totalAmount())
+                        .build());
+                written++;
+            }
+        }
+        log.info("Revenue rollup rebuilt for {}..{}: {} bucket rows", fromDay, toDay, written);
+        return written;
+    }
+
+    /** Compares every rollup bucket of the given days with the raw orders aggregate. */
+    @Transactional(readOnly = true)
+    public RevenueRollupCheckResponse check(LocalDate fromDay, LocalDate toDay) {
+        List<RevenueRollupCheckResponse.Mismatch> mismatches = new ArrayList<>();
+        int days = 0;
+        for (LocalDate day = fromDay; !day.isAfter(toDay); day = day.plusDays(1), days++) {
+            Map<BucketKey, RevenueTotals> raw = new HashMap<>();
+            for (OrderRevenueBucket bucket : rawBuckets(day)) {
+                raw.put(new BucketKey(day, bucket.outletId(), bucket.status(), bucket.paymentStatus()),
+                        new RevenueTotals(bucket.orderCount(), bucket.totalAmount()));
+            }
+            Map<BucketKey, RevenueTotals> rollup = new HashMap<>();
+            for (OrderRevenueDaily row : rollupRepository.findByDay(day)) {
+                rollup.put(new BucketKey(day, row.getOutletId(), row.getStatus(), row.getPaymentStatus()),
+                        new RevenueTotals(row.getOrderCount(), row.getTotalAmount()));
+            }
+            Set<BucketKey> keys = new TreeSet<>(raw.keySet());
+            keys.addAll(rollup.keySet());
+            for (BucketKey key : keys) {
+                RevenueTotals expected = raw.getOrDefault(key, RevenueTotals.ZERO);
+                RevenueTotals actual = rollup.getOrDefault(key, RevenueTotals.ZERO);
+                if (!expected.sameAs(actual)) {
+                    mismatches.add(RevenueRollupCheckResponse.Mismatch.builder()
+                            .day(day)
+                            .outletId(key.outletId())
+                            .status(key.status())
+                            .paymentStatus(key.paymentStatus())
+                            .rollupCount(actual.orderCount())
+                            .rawCount(expected.orderCount())
+                            .rollupAmount(actual.totalAmount())
+                            .rawAmount(expected.totalAmount())
+                            .build());
+                }
+            }
+        }
+        return RevenueRollupCheckResponse.builder()
+                .fromDay(fromDay)
+                .toDay(toDay)
+                .daysChecked(days)
+                .consistent(mismatches.isEmpty())
+                .mismatches(mismatches)
+                .build();
+    }
+
+    private void addPendingDelta(BucketKey key, long count, BigDecimal amount) {
+        pendingDeltas().merge(key, new RevenueTotals(count, amount), RevenueTotals::plus);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<BucketKey, RevenueTotals> pendingDeltas() {
+        Map<BucketKey, RevenueTotals> deltas =
+                (Map<BucketKey, RevenueTotals>) TransactionSynchronizationManager.getResource(PENDING_DELTAS_KEY);
+        if (deltas == null) {
+            Map<BucketKey, RevenueTotals> created = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_DELTAS_KEY, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    applyDeltas(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_DELTAS_KEY);
+                }
+            });
+            deltas = created;
+        }
+        return deltas;
+    }
+
+    private void applyDeltas(Map<BucketKey, RevenueTotals> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta.orderCount() == 0 && delta.totalAmount().signum() == 0) {
+                return;
+            }
+            applyDelta(key, delta);
+        });
+    }
+
+    private void applyDelta(BucketKey key, RevenueTotals delta) {
+        if (addDelta(key, delta) > 0) {
+            return;
+        }
+        Boolean inserted = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                insertBucket(connection, key, delta));
+        if (!Boolean.TRUE.equals(inserted)) {
+            log.debug("Revenue bucket {} created concurrently, adding to it", key);
+            if (addDelta(key, delta) == 0) {
+                throw new IllegalStateException("Revenue bucket " + key + " rejected the insert but has no row");
+            }
+        }
+    }
+
+    private int addDelta(BucketKey key, RevenueTotals delta) {
+        return rollupRepository.addDelta(key.day(), key.outletId(), key.status(), key.paymentStatus(),
+                delta.orderCount(), delta.totalAmount());
+    }
+
+    /** Inserts the bucket row behind a savepoint; returns false, with the insert undone, if the row already exists. */
+    private static boolean insertBucket(Connection connection, BucketKey key, RevenueTotals delta) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_BUCKET)) {
+            insert.setObject(1, key.day());
+            insert.setLong(2, key.outletId());
+            insert.setString(3, key.status().name());
+            insert.setString(4, key.paymentStatus().name());
+            insert.setLong(5, delta.orderCount());
+            insert.setBigDecimal(6, delta.totalAmount());
+            insert.executeUpdate();
+        } catch (SQLException e) {
+            if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                throw e;
+            }
+            connection.rollback(savepoint);
+            return false;
+        }
+        connection.releaseSavepoint(savepoint);
+        return true;
+    }
+
+    private List<OrderRevenueBucket> rawBuckets(LocalDate day) {
+        return rawBuckets(startOf(day), startOf(day.plusDays(1)));
+    }
+
+    /** Hot and archived orders aggregated together; an order is in exactly one of the two tables. */
+    private List<OrderRevenueBucket> rawBuckets(Instant from, Instant toExclusive) {
+        List<OrderRevenueBucket> archived = archivedOrderRepository.aggregateRevenueBuckets(from, toExclusive);
+        List<OrderRevenueBucket> hot = orderRepository.aggregateRevenueBuckets(from, toExclusive);
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Map<BucketKey, OrderRevenueBucket> merged = new LinkedHashMap<>();
+        for (List<OrderRevenueBucket> buckets : List.of(hot, archived)) {
+            for (OrderRevenueBucket bucket : buckets) {
+                merged.merge(new BucketKey(null, bucket.outletId(), bucket.status(), bucket.paymentStatus()), bucket,
+                        (a, b) -> new OrderRevenueBucket(a.outletId(), a.status(), a.paymentStatus(),
+                                a.orderCount() + b.orderCount(), a.totalAmount().add(b.totalAmount())));
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private RevenueTotals rawTotals(Instant from, Instant toExclusive, OrderStatus status, PaymentStatus paymentStatus) {
+        if (!from.isBefore(toExclusive)) {
+            return RevenueTotals.ZERO;
+        }
+        RevenueTotals totals = RevenueTotals.ZERO;
+        for (OrderRevenueBucket bucket : rawBuckets(from, toExclusive)) {
+            if (bucket.status() == status && bucket.paymentStatus() == paymentStatus) {
+                totals = totals.plus(new RevenueTotals(bucket.orderCount(), bucket.totalAmount()));
+            }
+        }
+        return totals;
+    }
+
+    private static LocalDate dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /** Order count and amount; also used as a delta (negative values allowed). */
+    public record RevenueTotals(long orderCount, BigDecimal totalAmount) {
+
+        static final RevenueTotals ZERO = new RevenueTotals(0, BigDecimal.ZERO);
+
+        RevenueTotals plus(RevenueTotals other) {
+            return new RevenueTotals(orderCount + other.orderCount, totalAmount.add(other.totalAmount));
+        }
+
+        boolean sameAs(RevenueTotals other) {
+            return orderCount == other.orderCount && totalAmount.compareTo(other.totalAmount) == 0;
+        }
+    }
+
+    private record BucketKey(LocalDate day, Long outletId, OrderStatus status, PaymentStatus paymentStatus)
+            implements Comparable<BucketKey> {
+
+        private static final Comparator<BucketKey> ORDER = Comparator.comparing(BucketKey::day)
+                .thenComparing(BucketKey::outletId)
+                .thenComparing(BucketKey::status)
+                .thenComparing(BucketKey::paymentStatus);
+
+        @Override
+        public int compareTo(BucketKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -3,8 +3,13 @@ package com.kpabk.kpabk_connect.order.service;
 import com.kpabk.kpabk_connect.order.dto.*;
 import com.kpabk.kpabk_connect.order.model.OrderStatus;
 import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import com.kpabk.kpabk_connect.product.dto.ProductResponse;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -14,6 +19,12 @@ public interface OrderService {
 
     OrderResponse placeOrder(CreateOrderRequest request);
 
+    /**
+     * Places an order using products the caller already loaded (e.g. cart checkout), skipping the product lookup.
+     * Products missing from the map are rejected as not found.
+     */
+    OrderResponse placeOrder(CreateOrderRequest request, Map<UUID, ProductResponse> products);
+
     OrderResponse getById(UUID id);
 
     OrderResponse getByIdAndCustomerId(UUID id, Long customerId);
@@ -29,9 +40,45 @@ public interface OrderService {
     /** Admin-only: update status without outlet check. */
     OrderResponse updateStatusByAdmin(UUID id, OrderStatus newStatus);
 
+    /**
+     * Moves many orders to {@code newStatus} with set-based UPDATEs, applying the same transition rules as
+     * {@link #updateStatus}. When {@code outletId} is non-null only that outlet's orders are touched (others report
+     * NOT_FOUND); null means admin.
+     */
+    BulkUpdateOrderStatusResponse bulkUpdateStatus(List<UUID> orderIds, Long outletId, OrderStatus newStatus);
+
+    /**
+     * Cancels those of the given orders that are still PENDING and UNPAID and were created before
+     * {@code createdBefore}, with one set-based UPDATE; stock, rollup and events are handled as in
+     * {@link #bulkUpdateStatus}. Used by the auto-cancel job.
+     *
+     * @return number of orders cancelled
+     */
+    int cancelStaleUnpaidOrders(Collection<UUID> orderIds, Instant createdBefore);
+
     PageResponse<OrderResponse> getAllOrders(Integer page, Integer size, OrderStatus status, Instant fromDate, Instant toDate);
 
+    /** Summary variants of the listings above (view=summary): no line items, order_items is never read. */
+    PageResponse<OrderSummaryResponse> getMyOrderSummaries(Long customerId, Integer page, Integer size, OrderStatus status);
+
+    PageResponse<OrderSummaryResponse> getOrderSummariesByOutlet(Long outletId, Integer page, Integer size, OrderStatus status);
+
+    PageResponse<OrderSummaryResponse> getAllOrderSummaries(Integer page, Integer size, OrderStatus status, Instant fromDate, Instant toDate);
+
+    /** Keyset variants of the listings above: newest first, no count query, {@code cursor} null for the first slice. */
+    CursorPageResponse<OrderResponse> getMyOrdersByCursor(Long customerId, String cursor, Integer size, OrderStatus status);
+
+    CursorPageResponse<OrderResponse> getOrdersByOutletByCursor(Long outletId, String cursor, Integer size, OrderStatus status);
+
+    CursorPageResponse<OrderResponse> getAllOrdersByCursor(String cursor, Integer size, OrderStatus status, Instant fromDate, Instant toDate);
+
     RevenueSummaryResponse getRevenueSummary(Instant fromDate, Instant toDate);
 
+    /** Admin backfill: recompute the daily revenue rollup for the given UTC days from the orders table. */
+    int rebuildRevenueRollup(LocalDate fromDay, LocalDate toDay);
+
+    /** Admin: compare the daily revenue rollup with the orders table for the given UTC days. */
+    RevenueRollupCheckResponse checkRevenueRollup(LocalDate fromDay, LocalDate toDay);
+
     void updatePaymentStatus(UUID orderId, PaymentStatus paymentStatus);
 }
@@ -1,7 +1,7 @@
 package com.kpabk.kpabk_connect.order.service;
 
 import com.kpabk.kpabk_connect.order.dto.*;
-import com.kpabk.kpabk_connect.order.exception.InvalidOrderStateException;
+import com.kpabk.kpabk_connect.order.event.OrderChangedEvent;
 import com.kpabk.kpabk_connect.order.exception.OrderNotFoundException;
 import com.kpabk.kpabk_connect.order.exception.OrderValidationException;
 import com.kpabk.kpabk_connect.order.model.Order;
@@ -9,6 +9,7 @@ import com.kpabk.kpabk_connect.order.model.OrderItem;
 import com.kpabk.kpabk_connect.order.model.OrderStatus;
 import com.kpabk.kpabk_connect.order.model.PaymentStatus;
 import com.kpabk.kpabk_connect.order.repository.OrderRepository;
+import com.kpabk.kpabk_connect.order.repository.OrderStatusSnapshot;
 import com.kpabk.kpabk_connect.product.dto.OutletProductResponse;
 import com.kpabk.kpabk_connect.product.dto.ProductResponse;
 import com.kpabk.kpabk_connect.product.service.OutletProductService;
@@ -17,7 +18,9 @@ import com.kpabk.kpabk_connect.user.dto.OutletResponse;
 import com.kpabk.kpabk_connect.user.exception.ResourceNotFoundException;
 import com.kpabk.kpabk_connect.user.service.OutletService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -27,14 +30,18 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
-    private static final int ORDER_NUMBER_MAX_ATTEMPTS = 5;
+    /** Largest {@code size} accepted by the cursor (keyset) listings. */
+    static final int MAX_CURSOR_SLICE_SIZE = 100;
 
     private final OrderRepository orderRepository;
     private final OutletService outletService;
@@ -42,10 +49,22 @@ public class OrderServiceImpl implements OrderService {
     /** Global product catalog; used when product is not specifically configured for an outlet. */
     private final ProductService productService;
     private final InventoryDeductionPort inventoryDeductionPort;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderRevenueRollupService revenueRollupService;
+    private final OrderArchiveService orderArchiveService;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public OrderResponse placeOrder(CreateOrderRequest request) {
+        return placeOrder(request, productService.getByIds(
+                request.getItems().stream().map(OrderItemRequest::getProductId).collect(Collectors.toSet())));
+    }
+
+    @Override
+    @Transactional
+    public OrderResponse placeOrder(CreateOrderRequest request, Map<UUID, ProductResponse> products) {
         // 1. Validate outlet exists and is active
         OutletResponse outlet;
         try {
@@ -60,52 +79,19 @@ public class OrderServiceImpl implements OrderService {
         Long outletId = request.getOutletId();
         List<OrderItemRequest> itemRequests = request.getItems();
 
-        // 2. Validate each product and build items with snapshot price/name
-        List<OrderItem> orderItems = new ArrayList<>();
-        BigDecimal totalAmount = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        // 2. Validate and build items with snapshot price/name against the pre-loaded products
+        List<OrderItem> orderItems = buildOrderItems(itemRequests, products);
+        BigDecimal totalAmount = orderItems.stream()
+                .map(OrderItem::getSubtotal)
+                .reduce(BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP), BigDecimal::add);
 
         Map<UUID, Integer> productQuantities = new HashMap<>();
-
         for (OrderItemRequest req : itemRequests) {
-            // New rule: any listed product can be ordered by any outlet.
-            // We rely on the global product catalog and ignore outlet-specific mappings for availability.
-            ProductResponse product;
-            try {
-                product = productService.getById(req.getProductId());
-            } catch (com.kpabk.kpabk_connect.product.exception.ResourceNotFoundException e) {
-                throw new OrderValidationException("Product not found: " + req.getProductId());
-            }
-
-            if (Boolean.FALSE.equals(product.getIsActive())) {
-                throw new OrderValidationException("Product is not active: " + product.getName());
-            }
-
-            int minQty = 1;
-            if (req.getQuantity() < minQty) {
-                throw new OrderValidationException(
-                        "Quantity for " + product.getName() + " must be at least " + minQty);
-            }
-
-            BigDecimal unitPrice = product.getBasePrice();
-            BigDecimal subtotal = unitPrice
-                    .multiply(BigDecimal.valueOf(req.getQuantity()))
-                    .setScale(2, RoundingMode.HALF_UP);
-            totalAmount = totalAmount.add(subtotal);
-
-            productQuantities.put(req.getProductId(), req.getQuantity());
-
-            OrderItem item = OrderItem.builder()
-                    .productId(req.getProductId())
-                    .productName(product.getName())
-                    .quantity(req.getQuantity())
-                    .priceAtOrderTime(unitPrice)
-                    .subtotal(subtotal)
-                    .build();
-            orderItems.add(item);
+            productQuantities.merge(req.getProductId(), req.getQuantity(), Integer::sum);
         }
 
-        // 3. Generate unique order number
-        String orderNumber = generateUniqueOrderNumber();
+        // 3. Generate unique order number (no DB lookup; uniqueness is guaranteed by the generator)
+        String orderNumber = orderNumberGenerator.nextOrderNumber();
 
         // 4. Create Order and OrderItems in single transaction
         Order order = Order.builder()
@@ -115,6 +101,7 @@ public class OrderServiceImpl implements OrderService {
                 .status(OrderStatus.PENDING)
                 .totalAmount(totalAmount)
                 .paymentStatus(PaymentStatus.UNPAID)
+                .itemCount(orderItems.size())
                 .build();
 
         for (OrderItem item : orderItems) {
@@ -122,8 +109,10 @@ public class OrderServiceImpl implements OrderService {
         }
         order.setItems(orderItems);
         order = orderRepository.save(order);
+        revenueRollupService.recordChange(order, null, null);
+        eventPublisher.publishEvent(OrderChangedEvent.placed(order));
 
-        // 5. Optionally trigger inventory deduction (no-op or event)
+        // 5. Reserve stock in the same transaction; insufficient stock rolls the whole order back
         inventoryDeductionPort.deductForOrder(order.getId(), outletId, productQuantities);
 
         return mapToResponse(order);
@@ -132,33 +121,33 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public OrderResponse getById(UUID id) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(id));
-        return mapToResponse(order);
+        return findResponse(id).orElseThrow(() -> new OrderNotFoundException(id));
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderResponse getByIdAndCustomerId(UUID id, Long customerId) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(id));
+        OrderResponse order = findResponse(id).orElseThrow(() -> new OrderNotFoundException(id));
         if (!Objects.equals(order.getCustomerId(), customerId)) {
             throw new OrderNotFoundException(id);
         }
-        return mapToResponse(order);
+        return order;
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderResponse getByIdAndOutletId(UUID id, Long outletId) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(id));
+        OrderResponse order = findResponse(id).orElseThrow(() -> new OrderNotFoundException(id));
         if (!Objects.equals(order.getOutletId(), outletId)) {
             throw new OrderNotFoundException(id);
         }
-        return mapToResponse(order);
+        return order;
     }
 
+    /**
+     * Hot orders first, then archived ones. Archived orders were closed long before anything still in the hot
+     * table, so the concatenation keeps the newest-first order without a union query across both tables.
+     */
     @Override
     @Transactional(readOnly = true)
     public PageResponse<OrderResponse> getMyOrders(Long customerId, Integer page, Integer size, OrderStatus status) {
@@ -166,7 +155,19 @@ public class OrderServiceImpl implements OrderService {
         Page<Order> orderPage = status != null
                 ? orderRepository.findByCustomerIdAndStatus(customerId, status, pageable)
                 : orderRepository.findByCustomerId(customerId, pageable);
-        return toPageResponse(orderPage);
+        long archivedTotal = orderArchiveService.countByCustomerId(customerId, status);
+        if (archivedTotal == 0) {
+            return toPageResponse(orderPage);
+        }
+        fetchItems(orderPage.getContent());
+        List<OrderResponse> content = new ArrayList<>(size);
+        orderPage.getContent().forEach(order -> content.add(mapToResponse(order)));
+        if (content.size() < size) {
+            long archiveOffset = Math.max(0, pageable.getOffset() - orderPage.getTotalElements());
+            content.addAll(orderArchiveService.findByCustomerId(customerId, status, archiveOffset, size - content.size()));
+        }
+        return toPageResponse(new PageImpl<>(content, pageable, orderPage.getTotalElements() + archivedTotal),
+                Function.identity());
     }
 
     @Override
@@ -179,45 +180,126 @@ public class OrderServiceImpl implements OrderService {
         return toPageResponse(orderPage);
     }
 
+    /** Retried on version conflicts: each attempt re-reads the order and re-applies the transition rules. */
     @Override
-    @Transactional
     public OrderResponse updateStatus(UUID id, Long outletId, OrderStatus newStatus) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(id));
-        if (!Objects.equals(order.getOutletId(), outletId)) {
-            throw new OrderNotFoundException(id);
-        }
-
-        if (newStatus == OrderStatus.CANCELLED) {
-            if (order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.CONFIRMED) {
-                throw new InvalidOrderStateException(
-                        "Only PENDING or CONFIRMED orders can be cancelled. Current: " + order.getStatus());
+        return optimisticLockRetry.execute(() -> {
+            Order order = orderRepository.findById(id)
+                    .orElseThrow(() -> new OrderNotFoundException(id));
+            if (!Objects.equals(order.getOutletId(), outletId)) {
+                throw new OrderNotFoundException(id);
             }
-        } else if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
-            throw new InvalidOrderStateException("Cannot change status of DELIVERED or CANCELLED order");
-        }
+            return applyStatus(order, newStatus);
+        });
+    }
+
+    @Override
+    public OrderResponse updateStatusByAdmin(UUID id, OrderStatus newStatus) {
+        return optimisticLockRetry.execute(() -> {
+            Order order = orderRepository.findById(id)
+                    .orElseThrow(() -> new OrderNotFoundException(id));
+            return applyStatus(order, newStatus);
+        });
+    }
 
+    private OrderResponse applyStatus(Order order, OrderStatus newStatus) {
+        OrderStatusTransitions.validate(order.getStatus(), newStatus);
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(newStatus);
-        order = orderRepository.save(order);
+        order = orderRepository.saveAndFlush(order);
+        revenueRollupService.recordChange(order, previousStatus, order.getPaymentStatus());
+        if (newStatus == OrderStatus.CANCELLED && previousStatus != OrderStatus.CANCELLED) {
+            inventoryDeductionPort.releaseForOrders(List.of(order.getId()));
+        }
+        eventPublisher.publishEvent(OrderChangedEvent.statusChanged(order, previousStatus));
         return mapToResponse(order);
     }
 
     @Override
     @Transactional
-    public OrderResponse updateStatusByAdmin(UUID id, OrderStatus newStatus) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(id));
-        if (newStatus == OrderStatus.CANCELLED) {
-            if (order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.CONFIRMED) {
-                throw new InvalidOrderStateException(
-                        "Only PENDING or CONFIRMED orders can be cancelled. Current: " + order.getStatus());
+    public BulkUpdateOrderStatusResponse bulkUpdateStatus(List<UUID> orderIds, Long outletId, OrderStatus newStatus) {
+        Set<UUID> ids = new LinkedHashSet<>(orderIds);
+        Map<UUID, OrderStatusSnapshot> snapshots = orderRepository.lockStatusSnapshots(ids, outletId).stream()
+                .collect(Collectors.toMap(OrderStatusSnapshot::id, Function.identity()));
+
+        Map<OrderStatus, List<UUID>> idsBySource = new EnumMap<>(OrderStatus.class);
+        for (OrderStatusSnapshot snapshot : snapshots.values()) {
+            if (OrderStatusTransitions.isAllowed(snapshot.status(), newStatus)) {
+                idsBySource.computeIfAbsent(snapshot.status(), s -> new ArrayList<>()).add(snapshot.id());
             }
-        } else if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
-            throw new InvalidOrderStateException("Cannot change status of DELIVERED or CANCELLED order");
         }
-        order.setStatus(newStatus);
-        order = orderRepository.save(order);
-        return mapToResponse(order);
+
+        // One guarded UPDATE per source status; the snapshot rows are locked, so each moves exactly its source ids.
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Set<UUID> updated = new HashSet<>();
+        for (Map.Entry<OrderStatus, List<UUID>> entry : idsBySource.entrySet()) {
+            List<UUID> sourceIds = entry.getValue();
+            int rows = orderRepository.updateStatusWhereCurrent(sourceIds, outletId, entry.getKey(), newStatus, now);
+            requireAllMoved(rows, sourceIds.size());
+            updated.addAll(sourceIds);
+        }
+
+        if (newStatus == OrderStatus.CANCELLED && !updated.isEmpty()) {
+            inventoryDeductionPort.releaseForOrders(updated);
+        }
+
+        List<BulkUpdateOrderStatusResponse.Result> results = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            OrderStatusSnapshot snapshot = snapshots.get(id);
+            BulkUpdateOrderStatusResponse.Outcome outcome;
+            if (snapshot == null) {
+                outcome = BulkUpdateOrderStatusResponse.Outcome.NOT_FOUND;
+            } else if (updated.contains(id)) {
+                outcome = BulkUpdateOrderStatusResponse.Outcome.UPDATED;
+                revenueRollupService.recordStatusChange(snapshot, newStatus);
+                eventPublisher.publishEvent(OrderChangedEvent.statusChanged(snapshot, newStatus));
+            } else {
+                outcome = BulkUpdateOrderStatusResponse.Outcome.INVALID_TRANSITION;
+            }
+            results.add(BulkUpdateOrderStatusResponse.Result.builder()
+                    .orderId(id)
+                    .outcome(outcome)
+                    .previousStatus(snapshot != null ? snapshot.status() : null)
+                    .build());
+        }
+        return BulkUpdateOrderStatusResponse.builder()
+                .status(newStatus)
+                .updatedCount(updated.size())
+                .results(results)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public int cancelStaleUnpaidOrders(Collection<UUID> orderIds, Instant createdBefore) {
+        if (orderIds.isEmpty() || !OrderStatusTransitions.isAllowed(OrderStatus.PENDING, OrderStatus.CANCELLED)) {
+            return 0;
+        }
+        Map<UUID, OrderStatusSnapshot> snapshots = orderRepository.lockStaleSnapshots(
+                        orderIds, OrderStatus.PENDING, PaymentStatus.UNPAID, createdBefore).stream()
+                .collect(Collectors.toMap(OrderStatusSnapshot::id, Function.identity()));
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        List<UUID> ids = new ArrayList<>(snapshots.keySet());
+        int rows = orderRepository.updateStatusWhereStale(ids, OrderStatus.PENDING, PaymentStatus.UNPAID,
+                createdBefore, OrderStatus.CANCELLED, now);
+        requireAllMoved(rows, ids.size());
+        inventoryDeductionPort.releaseForOrders(ids);
+        for (UUID id : ids) {
+            OrderStatusSnapshot snapshot = snapshots.get(id);
+            revenueRollupService.recordStatusChange(snapshot, OrderStatus.CANCELLED);
+            eventPublisher.publishEvent(OrderChangedEvent.statusChanged(snapshot, OrderStatus.CANCELLED));
+        }
+        return ids.size();
+    }
+
+    /** The rows of a guarded bulk UPDATE are locked beforehand; a short count means that invariant broke. */
+    private static void requireAllMoved(int rows, int expected) {
+        if (rows != expected) {
+            throw new IllegalStateException("Bulk status update moved " + rows + " of " + expected + " locked orders");
+        }
     }
 
     @Override
@@ -237,40 +319,168 @@ public class OrderServiceImpl implements OrderService {
         return toPageResponse(orderPage);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<OrderSummaryResponse> getMyOrderSummaries(Long customerId, Integer page, Integer size, OrderStatus status) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Page<OrderSummaryResponse> summaryPage = orderRepository.findSummariesByCustomerId(customerId, status, pageable);
+        long archivedTotal = orderArchiveService.countByCustomerId(customerId, status);
+        if (archivedTotal == 0) {
+            return toPageResponse(summaryPage, Function.identity());
+        }
+        // Same hot-then-archive concatenation as getMyOrders, so both views page and count alike
+        List<OrderSummaryResponse> content = new ArrayList<>(summaryPage.getContent());
+        if (content.size() < size) {
+            long archiveOffset = Math.max(0, pageable.getOffset() - summaryPage.getTotalElements());
+            content.addAll(orderArchiveService.findSummariesByCustomerId(customerId, status, archiveOffset, size - content.size()));
+        }
+        return toPageResponse(new PageImpl<>(content, pageable, summaryPage.getTotalElements() + archivedTotal),
+                Function.identity());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<OrderSummaryResponse> getOrderSummariesByOutlet(Long outletId, Integer page, Integer size, OrderStatus status) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        return toPageResponse(orderRepository.findSummariesByOutletId(outletId, status, pageable), Function.identity());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<OrderSummaryResponse> getAllOrderSummaries(Integer page, Integer size, OrderStatus status, Instant fromDate, Instant toDate) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Instant from = fromDate != null ? fromDate : Instant.EPOCH;
+        Instant to = toDate != null ? toDate : Instant.now();
+        return toPageResponse(orderRepository.findSummaries(from, to, status, pageable), Function.identity());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getMyOrdersByCursor(Long customerId, String cursor, Integer size, OrderStatus status) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        Pageable limit = PageRequest.ofSize(cursorSliceSize(size) + 1);
+        List<Order> orders = after == null
+                ? orderRepository.findFirstKeysetByCustomerId(customerId, status, limit)
+                : orderRepository.findNextKeysetByCustomerId(customerId, status, after.createdAt(), after.id(), limit);
+        return toCursorPageResponse(orders, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getOrdersByOutletByCursor(Long outletId, String cursor, Integer size, OrderStatus status) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        Pageable limit = PageRequest.ofSize(cursorSliceSize(size) + 1);
+        List<Order> orders = after == null
+                ? orderRepository.findFirstKeysetByOutletId(outletId, status, limit)
+                : orderRepository.findNextKeysetByOutletId(outletId, status, after.createdAt(), after.id(), limit);
+        return toCursorPageResponse(orders, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getAllOrdersByCursor(String cursor, Integer size, OrderStatus status, Instant fromDate, Instant toDate) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        Instant from = fromDate != null ? fromDate : Instant.EPOCH;
+        Instant to = toDate != null ? toDate : Instant.now();
+        Pageable limit = PageRequest.ofSize(cursorSliceSize(size) + 1);
+        List<Order> orders = after == null
+                ? orderRepository.findFirstKeyset(from, to, status, limit)
+                : orderRepository.findNextKeyset(from, to, status, after.createdAt(), after.id(), limit);
+        return toCursorPageResponse(orders, size);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public RevenueSummaryResponse getRevenueSummary(Instant fromDate, Instant toDate) {
         Instant from = fromDate != null ? fromDate : Instant.EPOCH;
         Instant to = toDate != null ? toDate : Instant.now();
-        BigDecimal total = orderRepository.sumTotalAmountByStatusAndPaymentAndDateBetween(
-                OrderStatus.DELIVERED, PaymentStatus.PAID, from, to);
-        long count = orderRepository.countByStatusAndPaymentAndDateBetween(
-                OrderStatus.DELIVERED, PaymentStatus.PAID, from, to);
+        OrderRevenueRollupService.RevenueTotals totals = revenueRollupService.summarize(
+                from, to, OrderStatus.DELIVERED, PaymentStatus.PAID);
         return RevenueSummaryResponse.builder()
                 .fromDate(from)
                 .toDate(to)
-                .totalRevenue(total != null ? total : BigDecimal.ZERO)
-                .orderCount(count)
+                .totalRevenue(totals.totalAmount() != null ? totals.totalAmount() : BigDecimal.ZERO)
+                .orderCount(totals.orderCount())
                 .build();
     }
 
     @Override
-    @Transactional
+    public int rebuildRevenueRollup(LocalDate fromDay, LocalDate toDay) {
+        return revenueRollupService.rebuild(fromDay, toDay);
+    }
+
+    @Override
+    public RevenueRollupCheckResponse checkRevenueRollup(LocalDate fromDay, LocalDate toDay) {
+        return revenueRollupService.check(fromDay, toDay);
+    }
+
+    /** Setting a payment status is idempotent, so version conflicts are retried (outside a caller's transaction). */
+    @Override
     public void updatePaymentStatus(UUID orderId, PaymentStatus paymentStatus) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
-        order.setPaymentStatus(paymentStatus);
-        orderRepository.save(order);
+        optimisticLockRetry.run(() -> {
+            Optional<Order> found = orderRepository.findById(orderId);
+            if (found.isEmpty()) {
+                // Late refunds can arrive after the order was archived
+                if (!orderArchiveService.updatePaymentStatus(orderId, paymentStatus)) {
+                    throw new OrderNotFoundException(orderId);
+                }
+                return;
+            }
+            Order order = found.get();
+            PaymentStatus previousPaymentStatus = order.getPaymentStatus();
+            order.setPaymentStatus(paymentStatus);
+            order = orderRepository.saveAndFlush(order);
+            revenueRollupService.recordChange(order, order.getStatus(), previousPaymentStatus);
+            if (previousPaymentStatus != paymentStatus) {
+                eventPublisher.publishEvent(OrderChangedEvent.paymentStatusChanged(order, previousPaymentStatus));
+            }
+        });
     }
 
-    private String generateUniqueOrderNumber() {
-        for (int i = 0; i < ORDER_NUMBER_MAX_ATTEMPTS; i++) {
-            String candidate = "ORD-" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
-            if (!orderRepository.existsByOrderNumber(candidate)) {
-                return candidate;
+    /** The order from the hot table, or from the archive once it has been moved there. */
+    private Optional<OrderResponse> findResponse(UUID id) {
+        Optional<Order> order = orderRepository.findById(id);
+        return order.isPresent() ? order.map(this::mapToResponse) : orderArchiveService.findById(id);
+    }
+
+    /**
+     * Validates and prices each requested line against the pre-loaded products, in request order,
+     * so the first failing line produces the same error as the former per-item lookup did.
+     */
+    private List<OrderItem> buildOrderItems(List<OrderItemRequest> itemRequests, Map<UUID, ProductResponse> products) {
+        List<OrderItem> orderItems = new ArrayList<>(itemRequests.size());
+        for (OrderItemRequest req : itemRequests) {
+            // New rule: any listed product can be ordered by any outlet.
+            // We rely on the global product catalog and ignore outlet-specific mappings for availability.
+            ProductResponse product = products.get(req.getProductId());
+            if (product == null) {
+                throw new OrderValidationException("Product not found: " + req.getProductId());
+            }
+
+            if (Boolean.FALSE.equals(product.getIsActive())) {
+                throw new OrderValidationException("Product is not active: " + product.getName());
             }
+
+            int minQty = 1;
+            if (req.getQuantity() < minQty) {
+                throw new OrderValidationException(
+                        "Quantity for " + product.getName() + " must be at least " + minQty);
+            }
+
+            BigDecimal unitPrice = product.getBasePrice();
+            BigDecimal subtotal = unitPrice
+                    .multiply(BigDecimal.valueOf(req.getQuantity()))
+                    .setScale(2, RoundingMode.HALF_UP);
+
+            orderItems.add(OrderItem.builder()
+                    .productId(req.getProductId())
+                    .productName(product.getName())
+                    .quantity(req.getQuantity())
+                    .priceAtOrderTime(unitPrice)
+                    .subtotal(subtotal)
+                    .build());
         }
-        throw new OrderValidationException("Could not generate unique order number");
+        return orderItems;
     }
 
     private OrderResponse mapToResponse(Order order) {
@@ -287,6 +497,7 @@ public class OrderServiceImpl implements OrderService {
                 .paymentStatus(order.getPaymentStatus())
                 .createdAt(order.getCreatedAt())
                 .updatedAt(order.getUpdatedAt())
+                .version(order.getVersion())
                 .items(itemResponses)
                 .build();
     }
@@ -302,9 +513,25 @@ public class OrderServiceImpl implements OrderService {
                 .build();
     }
 
+    /**
+     * Loads the items of all given orders with one fetch-join query instead of one lazy load per order.
+     * The fetched rows resolve to the same managed instances, so the list's order is preserved.
+     */
+    private void fetchItems(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        orderRepository.findAllWithItemsByIdIn(orders.stream().map(Order::getId).toList());
+    }
+
     private PageResponse<OrderResponse> toPageResponse(Page<Order> page) {
-        return PageResponse.<OrderResponse>builder()
-                .content(page.getContent().stream().map(this::mapToResponse).toList())
+        fetchItems(page.getContent());
+        return toPageResponse(page, this::mapToResponse);
+    }
+
+    private <T, R> PageResponse<R> toPageResponse(Page<T> page, Function<T, R> mapper) {
+        return PageResponse.<R>builder()
+                .content(page.getContent().stream().map(mapper).toList())
                 .page(page.getNumber())
                 .size(page.getSize())
                 .totalElements(page.getTotalElements())
@@ -313,4 +540,24 @@ public class OrderServiceImpl implements OrderService {
                 .last(page.isLast())
                 .build();
     }
+
+    private static int cursorSliceSize(Integer size) {
+        if (size == null || size < 1 || size > MAX_CURSOR_SLICE_SIZE) {
+            throw new OrderValidationException("size must be between 1 and " + MAX_CURSOR_SLICE_SIZE);
+        }
+        return size;
+    }
+
+    /** Expects up to size + 1 rows; the extra row only signals that another slice exists. */
+    private CursorPageResponse<OrderResponse> toCursorPageResponse(List<Order> orders, int size) {
+        boolean hasNext = orders.size() > size;
+        List<Order> slice = hasNext ? orders.subList(0, size) : orders;
+        fetchItems(slice);
+        return CursorPageResponse.<OrderResponse>builder()
+                .content(slice.stream().map(this::mapToResponse).toList())
+                .size(slice.size())
+                .nextCursor(hasNext ? OrderCursor.of(slice.get(slice.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
 }
@@ -0,0 +1,141 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.dto.OrderStatusCountsResponse;
+import com.kpabk.kpabk_connect.order.event.OrderChangedEvent;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.repository.OrderRepository;
+import com.kpabk.kpabk_connect.order.repository.OrderStatusCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory order counts per outlet and status for outlet home screens. Seeded from one GROUP BY at startup,
+ * kept current from committed {@link OrderChangedEvent}s, and periodically replaced by a fresh GROUP BY so drift
+ * (changes made by other nodes, archival) is corrected. Counts cover the hot orders table.
+ * <p>
+ * While a reconcile query runs, events are also recorded as deltas and added on top of its result, so changes
+ * committed during the query are not lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatusCounterService {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final OrderRepository orderRepository;
+
+    private final Map<Long, LongAdder[]> counters = new ConcurrentHashMap<>();
+    private final Object reconcileLock = new Object();
+    private volatile boolean seeded;
+    /** Non-null while a reconcile query runs. */
+    private volatile Map<Long, LongAdder[]> deltasDuringReconcile;
+
+    public OrderStatusCountsResponse getCounts(Long outletId) {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : STATUSES) {
+            counts.put(status, 0L);
+        }
+        if (seeded) {
+            LongAdder[] adders = counters.get(outletId);
+            if (adders != null) {
+                for (OrderStatus status : STATUSES) {
+                    counts.put(status, Math.max(0, adders[status.ordinal()].sum()));
+                }
+            }
+        } else {
+            // Before the first seed completes, answer this outlet from the database.
+            for (OrderStatusCount row : orderRepository.countByStatusForOutlet(outletId)) {
+                counts.put(row.status(), row.orderCount());
+            }
+        }
+        return OrderStatusCountsResponse.builder()
+                .outletId(outletId)
+                .counts(counts)
+                .total(counts.values().stream().mapToLong(Long::longValue).sum())
+                .build();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.type() == OrderChangedEvent.Type.PAYMENT_STATUS_CHANGED || event.status() == event.previousStatus()) {
+            return;
+        }
+        apply(counters, event);
+        Map<Long, LongAdder[]> deltas = deltasDuringReconcile;
+        if (deltas != null) {
+            apply(deltas, event);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${order.status-counts.reconcile-interval:PT5M}",
+            initialDelayString = "${order.status-counts.reconcile-interval:PT5M}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            Map<Long, LongAdder[]> deltas = new ConcurrentHashMap<>();
+            deltasDuringReconcile = deltas;
+            try {
+                List<OrderStatusCount> rows = orderRepository.countByOutletAndStatus();
+                Map<Long, long[]> fresh = new HashMap<>();
+                for (OrderStatusCount row : rows) {
+                    fresh.computeIfAbsent(row.outletId(), id -> new long[STATUSES.length])[row.status().ordinal()] =
+                            row.orderCount();
+                }
+                deltasDuringReconcile = null;
+                deltas.forEach((outletId, adders) -> {
+                    long[] values = fresh.computeIfAbsent(outletId, id -> new long[STATUSES.length]);
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] += adders[i].sum();
+                    }
+                });
+                counters.keySet().retainAll(fresh.keySet());
+                fresh.forEach((outletId, values) -> {
+                    LongAdder[] adders = counters.computeIfAbsent(outletId, id -> newAdders());
+                    for (int i = 0; i < values.length; i++) {
+                        adders[i].reset();
+                        adders[i].add(values[i]);
+                    }
+                });
+                seeded = true;
+            } catch (RuntimeException e) {
+                log.warn("Order status counter reconcile failed: {}", e.getMessage());
+            } finally {
+                deltasDuringReconcile = null;
+            }
+        }
+    }
+
+    private static void apply(Map<Long, LongAdder[]> target, OrderChangedEvent event) {
+        LongAdder[] adders = target.computeIfAbsent(event.outletId(), id -> newAdders());
+        if (event.previousStatus() != null) {
+            adders[event.previousStatus().ordinal()].decrement();
+        }
+        adders[event.status().ordinal()].increment();
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[STATUSES.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,38 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.exception.InvalidOrderStateException;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Order status transition rules shared by single and bulk updates: only PENDING or CONFIRMED orders can be
+ * cancelled, and DELIVERED or CANCELLED orders cannot change status.
+ */
+final class OrderStatusTransitions {
+
+    private static final Set<OrderStatus> CANCELLABLE = EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+    private static final Set<OrderStatus> TERMINAL = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    private OrderStatusTransitions() {
+    }
+
+    static boolean isAllowed(OrderStatus current, OrderStatus target) {
+        if (target == OrderStatus.CANCELLED) {
+            return CANCELLABLE.contains(current);
+        }
+        return !TERMINAL.contains(current);
+    }
+
+    static void validate(OrderStatus current, OrderStatus target) {
+        if (isAllowed(current, target)) {
+            return;
+        }
+        if (target == OrderStatus.CANCELLED) {
+            throw new InvalidOrderStateException(
+                    "Only PENDING or CONFIRMED orders can be cancelled. Current: " + current);
+        }
+        throw new InvalidOrderStateException("Cannot change status of DELIVERED or CANCELLED order");
+    }
+}
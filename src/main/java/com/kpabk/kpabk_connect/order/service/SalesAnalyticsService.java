@@ -0,0 +1,156 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.common.cache.BoundedTtlCache;
+import com.kpabk.kpabk_connect.order.config.SalesAnalyticsProperties;
+import com.kpabk.kpabk_connect.order.dto.SalesAnalyticsResponse;
+import com.kpabk.kpabk_connect.order.dto.SalesGroupBy;
+import com.kpabk.kpabk_connect.order.exception.OrderValidationException;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Admin sales analytics: revenue, quantity and order count grouped by one dimension, computed by a single
+ * GROUP BY query over order_items joined to orders. Results are cached briefly and capped in rows and date span
+ * so dashboards cannot trigger unbounded scans.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final String METRICS = "SUM(i.subtotal), SUM(i.quantity), COUNT(DISTINCT o.id)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final SalesAnalyticsProperties properties;
+    private final BoundedTtlCache<QueryKey, SalesAnalyticsResponse> cache;
+
+    public SalesAnalyticsService(SalesAnalyticsProperties properties) {
+        this.properties = properties;
+        this.cache = new BoundedTtlCache<>(properties.getCacheMaxEntries(), properties.getCacheTtl());
+    }
+
+    /**
+     * @param fromDate      inclusive; defaults to toDate minus the default range
+     * @param toDate        inclusive; defaults to now (rounded up to the minute so repeated calls share a cache entry)
+     * @param status        order status filter; when null, CANCELLED orders are excluded
+     * @param paymentStatus optional payment status filter
+     * @param limit         requested number of groups; capped at order.analytics.max-rows
+     */
+    @Transactional(readOnly = true)
+    public SalesAnalyticsResponse getSales(SalesGroupBy groupBy, Instant fromDate, Instant toDate,
+                                           OrderStatus status, PaymentStatus paymentStatus, Integer limit) {
+        if (groupBy == null) {
+            throw new OrderValidationException("groupBy is required");
+        }
+        Instant to = toDate != null ? toDate : Instant.now().truncatedTo(ChronoUnit.MINUTES).plus(1, ChronoUnit.MINUTES);
+        Instant from = fromDate != null ? fromDate : to.minus(Duration.ofDays(properties.getDefaultRangeDays()));
+        if (from.isAfter(to)) {
+            throw new OrderValidationException("fromDate must not be after toDate");
+        }
+        if (Duration.between(from, to).compareTo(Duration.ofDays(properties.getMaxRangeDays())) > 0) {
+            throw new OrderValidationException("Date range must not exceed " + properties.getMaxRangeDays() + " days");
+        }
+        int cappedLimit = limit == null || limit < 1 ? properties.getMaxRows() : Math.min(limit, properties.getMaxRows());
+        QueryKey key = new QueryKey(groupBy, from, to, status, paymentStatus, cappedLimit);
+        return cache.get(key, this::query);
+    }
+
+    private SalesAnalyticsResponse query(QueryKey key) {
+        Dimension dimension = Dimension.of(key.groupBy());
+        StringBuilder jpql = new StringBuilder("SELECT ")
+                .append(dimension.keyExpression).append(", ")
+                .append(dimension.labelExpression).append(", ")
+                .append(METRICS)
+                .append(" FROM OrderItem i JOIN i.order o ")
+                .append(dimension.joins)
+                .append(" WHERE o.createdAt >= :from AND o.createdAt <= :to");
+        jpql.append(key.status() != null ? " AND o.status = :status" : " AND o.status <> :cancelled");
+        if (key.paymentStatus() != null) {
+            jpql.append(" AND o.paymentStatus = :paymentStatus");
+        }
+        jpql.append(" GROUP BY ").append(dimension.keyExpression)
+                .append(" ORDER BY ").append(dimension.orderBy);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setParameter("from", key.from())
+                .setParameter("to", key.to())
+                .setMaxResults(key.limit() + 1);
+        if (key.status() != null) {
+            query.setParameter("status", key.status());
+        } else {
+            query.setParameter("cancelled", OrderStatus.CANCELLED);
+        }
+        if (key.paymentStatus() != null) {
+            query.setParameter("paymentStatus", key.paymentStatus());
+        }
+        List<Object[]> result = query.getResultList();
+
+        boolean truncated = result.size() > key.limit();
+        List<SalesAnalyticsResponse.Row> rows = result.stream()
+                .limit(key.limit())
+                .map(SalesAnalyticsService::toRow)
+                .toList();
+        return SalesAnalyticsResponse.builder()
+                .groupBy(key.groupBy())
+                .fromDate(key.from())
+                .toDate(key.to())
+                .status(key.status())
+                .paymentStatus(key.paymentStatus())
+                .limit(key.limit())
+                .truncated(truncated)
+                .generatedAt(Instant.now())
+                .rows(rows)
+                .build();
+    }
+
+    private static SalesAnalyticsResponse.Row toRow(Object[] r) {
+        String key = r[0] != null ? r[0].toString() : null;
+        return SalesAnalyticsResponse.Row.builder()
+                .key(key)
+                .label(r[1] != null ? r[1].toString() : key)
+                .revenue(r[2] != null ? (BigDecimal) r[2] : BigDecimal.ZERO)
+                .quantity(r[3] != null ? ((Number) r[3]).longValue() : 0L)
+                .orderCount(r[4] != null ? ((Number) r[4]).longValue() : 0L)
+                .build();
+    }
+
+    /** Whitelisted JPQL fragments per dimension; never built from request input. */
+    private enum Dimension {
+        OUTLET("o.outletId", "MAX(ot.outletName)", "LEFT JOIN Outlet ot ON ot.id = o.outletId", "SUM(i.subtotal) DESC"),
+        PRODUCT("i.productId", "MAX(i.productName)", "", "SUM(i.subtotal) DESC"),
+        CATEGORY("c.id", "MAX(c.name)", "LEFT JOIN Product p ON p.id = i.productId LEFT JOIN p.category c", "SUM(i.subtotal) DESC"),
+        DAY("extract(date from o.createdAt)", "extract(date from o.createdAt)", "", "extract(date from o.createdAt) ASC"),
+        HOUR("extract(hour from o.createdAt)", "extract(hour from o.createdAt)", "", "extract(hour from o.createdAt) ASC");
+
+        private final String keyExpression;
+        private final String labelExpression;
+        private final String joins;
+        private final String orderBy;
+
+        Dimension(String keyExpression, String labelExpression, String joins, String orderBy) {
+            this.keyExpression = keyExpression;
+            this.labelExpression = labelExpression;
+            this.joins = joins;
+            this.orderBy = orderBy;
+        }
+
+        static Dimension of(SalesGroupBy groupBy) {
+            return valueOf(groupBy.name());
+        }
+    }
+
+    private record QueryKey(SalesGroupBy groupBy, Instant from, Instant to,
+                            OrderStatus status, PaymentStatus paymentStatus, int limit) {
+    }
+}
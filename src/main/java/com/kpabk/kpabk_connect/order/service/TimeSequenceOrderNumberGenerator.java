@@ -0,0 +1,85 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.config.OrderNumberProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Instant;
+
+/**
+ * Order numbers built from milliseconds since a custom epoch (41 bits), node id (10 bits) and a per-millisecond
+ * sequence (12 bits). The 63-bit value is written in Crockford base32 (no I, L, O, U) as a fixed 13-character
+ * code after the configured prefix, e.g. ORD-01HZX3K7M2Q8A.
+ * <p>
+ * Numbers are strictly increasing per node. If the clock moves backwards or the sequence is exhausted within
+ * one millisecond, the generator keeps counting on the last used millisecond instead of waiting.
+ */
+@Component
+@Slf4j
+public class TimeSequenceOrderNumberGenerator implements OrderNumberGenerator {
+
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int CODE_LENGTH = 13;
+
+    private final String prefix;
+    private final long nodeId;
+
+    private long lastMillis = -1L;
+    private long sequence;
+
+    public TimeSequenceOrderNumberGenerator(OrderNumberProperties properties) {
+        this.prefix = properties.getPrefix() != null ? properties.getPrefix() : "";
+        this.nodeId = resolveNodeId(properties.getNodeId());
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        return prefix + encode(nextId());
+    }
+
+    synchronized long nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        if (now > lastMillis) {
+            lastMillis = now;
+            sequence = 0;
+        } else if (++sequence > MAX_SEQUENCE) {
+            lastMillis++;
+            sequence = 0;
+        }
+        return (lastMillis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    private static String encode(long value) {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = CROCKFORD[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(code);
+    }
+
+    private static long resolveNodeId(Integer configured) {
+        if (configured != null) {
+            if (configured < 0 || configured > MAX_NODE_ID) {
+                throw new IllegalStateException("order.number.node-id must be between 0 and " + MAX_NODE_ID);
+            }
+            return configured;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = String.valueOf(ProcessHandle.current().pid());
+        }
+        long derived = (host.hashCode() & 0x7fffffffL) % (MAX_NODE_ID + 1);
+        log.warn("order.number.node-id not set; derived node id {} from host '{}'. Set it explicitly when running several nodes.",
+                derived, host);
+        return derived;
+    }
+}
@@ -0,0 +1,29 @@
+package com.kpabk.kpabk_connect.payment.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Timeouts, bulkhead and circuit breaker around the payment gateway calls. Values from application.yaml
+ * (payment.gateway.*).
+ */
+@Component
+@ConfigurationProperties(prefix = "payment.gateway")
+@Getter
+@Setter
+public class PaymentGatewayResilienceProperties {
+
+    private Duration createOrderTimeout = Duration.ofSeconds(10);
+    private Duration refundTimeout = Duration.ofSeconds(20);
+    private Duration refundLookupTimeout = Duration.ofSeconds(10);
+    /** Gateway calls in flight at once (including timed-out calls the gateway has not answered yet); more are rejected. */
+    private int maxConcurrentCalls = 20;
+    /** Consecutive failed or timed-out calls that open the circuit. */
+    private int failureThreshold = 5;
+    /** How long an open circuit rejects calls before a single probe call is let through. */
+    private Duration openDuration = Duration.ofSeconds(30);
+}
@@ -0,0 +1,30 @@
+package com.kpabk.kpabk_connect.payment.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Recovery of payments left between the before/after transactions of a gateway call. Values from application.yaml
+ * (payment.recovery.*).
+ */
+@Component
+@ConfigurationProperties(prefix = "payment.recovery")
+@Getter
+@Setter
+public class PaymentRecoveryProperties {
+
+    /** CREATED payments older than this never got a gateway order back to the client; they are marked FAILED. */
+    private Duration createdTimeout = Duration.ofMinutes(15);
+    /**
+     * REFUND_PENDING payments not confirmed (by the request or a refund webhook) within this are settled from the
+     * gateway's list of refunds for the payment.
+     */
+    private Duration refundPendingTimeout = Duration.ofHours(1);
+    /** Unconfirmed refunds looked up at the gateway per recovery run. */
+    private int refundCheckBatchSize = 100;
+    private Duration leaseTtl = Duration.ofMinutes(1);
+}
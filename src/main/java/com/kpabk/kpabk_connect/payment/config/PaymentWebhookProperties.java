@@ -0,0 +1,42 @@
+package com.kpabk.kpabk_connect.payment.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Webhook ingestion. Values from application.yaml (payment.webhook.*).
+ */
+@Component
+@ConfigurationProperties(prefix = "payment.webhook")
+@Getter
+@Setter
+public class PaymentWebhookProperties {
+
+    /** SYNC processes the webhook on the request thread; ASYNC stores it and acknowledges immediately. */
+    private Mode mode = Mode.SYNC;
+    /** Single-threaded partitions; events of one razorpay order always go to the same partition. */
+    private int partitions = 4;
+    /** Queued events per partition; when full, events wait in the inbox for the recovery sweep. */
+    private int queueCapacity = 500;
+    /** Processing attempts before an inbox row is marked FAILED. */
+    private int maxAttempts = 5;
+    /** Pending rows older than this are (re)queued by the recovery sweep; they are no longer in a live queue. */
+    private Duration recoveryGrace = Duration.ofMinutes(1);
+    private int recoveryBatchSize = 500;
+    /** How long PROCESSED rows are kept. */
+    private Duration retention = Duration.ofDays(7);
+    private Duration leaseTtl = Duration.ofMinutes(1);
+    /** Recently processed event ids kept in memory in front of the payment_webhook_events unique key. */
+    private int dedupeCacheMaxEntries = 50_000;
+    /** Should cover the gateway's retry window. */
+    private Duration dedupeCacheTtl = Duration.ofHours(24);
+
+    public enum Mode {
+        SYNC,
+        ASYNC
+    }
+}
@@ -5,6 +5,7 @@ import com.kpabk.kpabk_connect.auth.repository.UserRepository;
 import com.kpabk.kpabk_connect.payment.dto.*;
 import com.kpabk.kpabk_connect.payment.model.PaymentStatus;
 import com.kpabk.kpabk_connect.payment.service.PaymentService;
+import com.kpabk.kpabk_connect.payment.service.ResilientPaymentGatewayAdapter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
@@ -21,7 +22,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Payment API: customer (create payment, get payment), admin (list, refund).
+ * Payment API: customer (create payment, get payment), admin (list, refund, gateway stats).
  */
 @RestController
 @RequestMapping("/api/payments")
@@ -30,6 +31,7 @@ public class PaymentController {
 
     private final PaymentService paymentService;
     private final UserRepository userRepository;
+    private final ResilientPaymentGatewayAdapter paymentGateway;
 
     @PostMapping("/create/{orderId}")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('OUTLET') or hasRole('ADMIN')")
@@ -87,6 +89,13 @@ public class PaymentController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/gateway/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Gateway circuit state and call outcomes (admin only)", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<ResilientPaymentGatewayAdapter.GatewayStats> getGatewayStats() {
+        return ResponseEntity.ok(paymentGateway.stats());
+    }
+
     private Optional<Long> resolveCurrentUserId() {
         return Optional.ofNullable(org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication())
                 .filter(Authentication::isAuthenticated)
@@ -1,6 +1,7 @@
 package com.kpabk.kpabk_connect.payment.controller;
 
 import com.kpabk.kpabk_connect.payment.service.PaymentService;
+import com.kpabk.kpabk_connect.payment.service.PaymentWebhookInboxService;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +11,8 @@ import org.springframework.web.bind.annotation.*;
 
 /**
  * Webhook endpoint for Razorpay. No authentication; verification is by signature.
- * Must be permitted in SecurityConfig.
+ * Must be permitted in SecurityConfig. In async mode (payment.webhook.mode=ASYNC) the event is stored and acknowledged
+ * immediately and processed in the background.
  */
 @RestController
 @RequestMapping("/api/payments")
@@ -20,13 +22,16 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentWebhookController {
 
     private static final String SIGNATURE_HEADER = "X-Razorpay-Signature";
+    private static final String EVENT_ID_HEADER = "X-Razorpay-Event-Id";
 
     private final PaymentService paymentService;
+    private final PaymentWebhookInboxService webhookInboxService;
 
     @PostMapping("/webhook")
     public ResponseEntity<Void> webhook(
             @RequestBody String rawBody,
-            @RequestHeader(value = SIGNATURE_HEADER, required = false) String signature
+            @RequestHeader(value = SIGNATURE_HEADER, required = false) String signature,
+            @RequestHeader(value = EVENT_ID_HEADER, required = false) String eventId
     ) {
         log.debug("Webhook received, body length={}", rawBody != null ? rawBody.length() : 0);
         if (rawBody == null || rawBody.isBlank()) {
@@ -37,7 +42,11 @@ public class PaymentWebhookController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         try {
-            boolean processed = paymentService.processWebhook(rawBody, signature);
+            if (webhookInboxService.isAsync()) {
+                webhookInboxService.accept(rawBody, signature, eventId);
+                return ResponseEntity.ok().build();
+            }
+            boolean processed = paymentService.processWebhook(rawBody, signature, eventId);
             return processed ? ResponseEntity.ok().build() : ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (com.kpabk.kpabk_connect.payment.exception.InvalidWebhookException e) {
             log.warn("Invalid webhook: {}", e.getMessage());
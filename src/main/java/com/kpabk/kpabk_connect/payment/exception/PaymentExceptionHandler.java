@@ -59,6 +59,19 @@ public class PaymentExceptionHandler {
         );
     }
 
+    @Hidden
+    @ExceptionHandler(PaymentGatewayUnavailableException.class)
+    public ResponseEntity<ErrorBody> handleGatewayUnavailable(PaymentGatewayUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                ErrorBody.builder()
+                        .timestamp(Instant.now())
+                        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .error("Service Unavailable")
+                        .message(ex.getMessage())
+                        .build()
+        );
+    }
+
     @Hidden
     @ExceptionHandler(OrderNotFoundForPaymentException.class)
     public ResponseEntity<ErrorBody> handleOrderNotFoundForPayment(OrderNotFoundForPaymentException ex) {
@@ -0,0 +1,12 @@
+package com.kpabk.kpabk_connect.payment.exception;
+
+/**
+ * Thrown when no payment gateway is configured (no Razorpay keys, or a client that could not be created). The only
+ * case in which payments fall back to test mode.
+ */
+public class PaymentGatewayNotConfiguredException extends PaymentGatewayUnavailableException {
+
+    public PaymentGatewayNotConfiguredException(String message) {
+        super(message);
+    }
+}
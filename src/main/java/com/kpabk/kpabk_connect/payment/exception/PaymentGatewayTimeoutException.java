@@ -0,0 +1,12 @@
+package com.kpabk.kpabk_connect.payment.exception;
+
+/**
+ * Thrown when a gateway call did not answer within its timeout. The call may still complete at the gateway, so its
+ * outcome is unknown.
+ */
+public class PaymentGatewayTimeoutException extends PaymentGatewayUnavailableException {
+
+    public PaymentGatewayTimeoutException(String message) {
+        super(message);
+    }
+}
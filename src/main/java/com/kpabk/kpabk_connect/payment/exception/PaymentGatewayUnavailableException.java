@@ -0,0 +1,16 @@
+package com.kpabk.kpabk_connect.payment.exception;
+
+/**
+ * Thrown when the payment gateway cannot be used right now (not configured, circuit open, bulkhead full, call
+ * failed or timed out). Unlike {@link PaymentValidationException} this says nothing about the request itself.
+ */
+public class PaymentGatewayUnavailableException extends RuntimeException {
+
+    public PaymentGatewayUnavailableException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,5 +1,6 @@
 package com.kpabk.kpabk_connect.payment.model;
 
+import com.kpabk.kpabk_connect.common.id.UuidV7;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
@@ -10,7 +11,7 @@ import java.util.UUID;
 
 /**
  * Payment entity. Tied to an order by orderId (no JPA relation to keep modules loose).
- * H2 and PostgreSQL compatible. UUID primary key.
+ * H2 and PostgreSQL compatible. Time-ordered UUIDv7 primary key.
  */
 @Schema(hidden = true)
 @Entity
@@ -29,13 +30,14 @@ import java.util.UUID;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "order_id", nullable = false)
     private UUID orderId;
 
-    @Column(name = "razorpay_order_id", nullable = false, unique = true, length = 64)
+    /** Null while CREATED: the payment row is written before the gateway order exists. */
+    @Column(name = "razorpay_order_id", unique = true, length = 64)
     private String razorpayOrderId;
 
     @Column(name = "razorpay_payment_id", length = 64)
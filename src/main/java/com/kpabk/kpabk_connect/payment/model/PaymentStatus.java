@@ -2,11 +2,16 @@ package com.kpabk.kpabk_connect.payment.model;
 
 /**
  * Payment lifecycle status. Stored as string in DB for H2 and PostgreSQL compatibility.
+ * CREATED: recorded, gateway order not yet created. REFUND_PENDING: refund requested at the gateway, not yet confirmed.
+ * REFUND_REVIEW: a refund stayed unconfirmed and the gateway could not be asked whether it went through; not refundable
+ * until the recovery job or a refund webhook settles it, or someone checks it at the gateway.
  */
 public enum PaymentStatus {
     CREATED,
     INITIATED,
     SUCCESS,
     FAILED,
+    REFUND_PENDING,
+    REFUND_REVIEW,
     REFUNDED
 }
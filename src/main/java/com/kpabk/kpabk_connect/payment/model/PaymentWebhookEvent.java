@@ -1,5 +1,6 @@
 package com.kpabk.kpabk_connect.payment.model;
 
+import com.kpabk.kpabk_connect.common.id.UuidV7;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
@@ -24,7 +25,7 @@ import java.util.UUID;
 public class PaymentWebhookEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "razorpay_event_id", nullable = false, unique = true, length = 64)
@@ -0,0 +1,61 @@
+package com.kpabk.kpabk_connect.payment.model;
+
+import com.kpabk.kpabk_connect.common.id.UuidV7;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Webhook accepted in async mode: signature verified, stored raw, processed afterwards by
+ * {@link com.kpabk.kpabk_connect.payment.service.PaymentWebhookInboxService}. The time-ordered id is the arrival order.
+ */
+@Schema(hidden = true)
+@Entity
+@Table(name = "payment_webhook_inbox", indexes = {
+    @Index(name = "idx_webhook_inbox_status_id", columnList = "status, id"),
+    @Index(name = "idx_webhook_inbox_partition", columnList = "partition_key, status, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentWebhookInbox {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    /** Razorpay order id (payment events) or payment id (refund events); events with the same key run in order. */
+    @Column(name = "partition_key", nullable = false, length = 64)
+    private String partitionKey;
+
+    /** Gateway event id header, if sent; the idempotency key. */
+    @Column(name = "event_id", length = 64)
+    private String eventId;
+
+    @Column(name = "raw_payload", nullable = false, columnDefinition = "TEXT")
+    private String rawPayload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private WebhookInboxStatus status = WebhookInboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false, updatable = false)
+    @Builder.Default
+    private Instant receivedAt = Instant.now();
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+}
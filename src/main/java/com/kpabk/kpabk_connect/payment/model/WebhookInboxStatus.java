@@ -0,0 +1,12 @@
+package com.kpabk.kpabk_connect.payment.model;
+
+/**
+ * Processing state of a webhook inbox row.
+ * Stored as string in DB for H2 and PostgreSQL compatibility.
+ */
+public enum WebhookInboxStatus {
+    PENDING,
+    PROCESSED,
+    /** Gave up after payment.webhook.max-attempts; needs manual attention. */
+    FAILED
+}
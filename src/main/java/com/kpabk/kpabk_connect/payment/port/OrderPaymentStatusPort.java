@@ -5,6 +5,7 @@ import java.util.UUID;
 /**
  * Port to update order payment status. Implemented by order module / application config.
  * Keeps payment module decoupled from order entity.
+ * Must be called inside the payment transaction; the order is updated asynchronously after commit (via the outbox).
  */
 public interface OrderPaymentStatusPort {
 
@@ -1,5 +1,6 @@
 package com.kpabk.kpabk_connect.payment.port;
 
+import java.util.List;
 
 /**
  * Gateway-agnostic payment operations. Razorpay implementation provided by adapter.
@@ -33,4 +34,12 @@ public interface PaymentGatewayPort {
      * @return gateway refund id
      */
     String createRefund(String razorpayPaymentId, Long amountPaise);
+
+    /**
+     * Refunds the gateway holds for a payment; used to settle a refund whose outcome was never seen.
+     *
+     * @param razorpayPaymentId gateway payment id
+     * @return gateway refund ids, empty if the payment was not refunded
+     */
+    List<String> findRefundIds(String razorpayPaymentId);
 }
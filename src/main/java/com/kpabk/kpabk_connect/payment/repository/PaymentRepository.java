@@ -5,11 +5,14 @@ import com.kpabk.kpabk_connect.payment.model.PaymentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -36,4 +39,35 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
             @Param("from") Instant from,
             @Param("to") Instant to,
             Pageable pageable);
+
+    // ---- Guarded state transitions (gateway calls run between short transactions) ----
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :target, p.updatedAt = :now WHERE p.id = :id AND p.status = :source")
+    int updateStatusWhereCurrent(@Param("id") UUID id, @Param("source") PaymentStatus source,
+                                 @Param("target") PaymentStatus target, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :target, p.razorpayOrderId = :razorpayOrderId, p.updatedAt = :now "
+            + "WHERE p.id = :id AND p.status = :source")
+    int attachGatewayOrder(@Param("id") UUID id, @Param("razorpayOrderId") String razorpayOrderId,
+                           @Param("source") PaymentStatus source, @Param("target") PaymentStatus target,
+                           @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :target, p.refundedAt = :now, p.updatedAt = :now "
+            + "WHERE p.id = :id AND p.status = :source")
+    int markRefunded(@Param("id") UUID id, @Param("source") PaymentStatus source,
+                     @Param("target") PaymentStatus target, @Param("now") Instant now);
+
+    /** Recovery: payments in one of {@code statuses} not updated since before {@code before}, oldest first. */
+    @Query("SELECT p FROM Payment p WHERE p.status IN :statuses AND p.updatedAt < :before ORDER BY p.updatedAt")
+    List<Payment> findStale(@Param("statuses") Collection<PaymentStatus> statuses, @Param("before") Instant before,
+                            Pageable limit);
+
+    /** Recovery: moves payments stuck in {@code source} since before {@code before}. */
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :target, p.updatedAt = :now WHERE p.status = :source AND p.updatedAt < :before")
+    int updateStaleStatus(@Param("source") PaymentStatus source, @Param("target") PaymentStatus target,
+                          @Param("before") Instant before, @Param("now") Instant now);
 }
@@ -0,0 +1,47 @@
+package com.kpabk.kpabk_connect.payment.repository;
+
+import com.kpabk.kpabk_connect.payment.model.PaymentWebhookInbox;
+import com.kpabk.kpabk_connect.payment.model.WebhookInboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PaymentWebhookInboxRepository extends JpaRepository<PaymentWebhookInbox, UUID> {
+
+    /** Oldest rows first; {@code receivedBefore} leaves rows that are still queued on the receiving node alone. */
+    @Query("SELECT e FROM PaymentWebhookInbox e WHERE e.status = :status AND e.receivedAt < :receivedBefore ORDER BY e.id")
+    List<PaymentWebhookInbox> findByStatusReceivedBefore(
+            @Param("status") WebhookInboxStatus status, @Param("receivedBefore") Instant receivedBefore, Pageable limit);
+
+    long countByStatus(WebhookInboxStatus status);
+
+    /** True while an earlier row of the same partition key is still PENDING (not processed and not given up). */
+    @Query("SELECT CASE WHEN COUNT(e) > 0 THEN true ELSE false END FROM PaymentWebhookInbox e "
+            + "WHERE e.partitionKey = :partitionKey AND e.status = :pending AND e.id < :id")
+    boolean existsEarlierPending(@Param("partitionKey") String partitionKey, @Param("id") UUID id,
+                                 @Param("pending") WebhookInboxStatus pending);
+
+    @Modifying
+    @Query("UPDATE PaymentWebhookInbox e SET e.status = :processed, e.processedAt = :now "
+            + "WHERE e.id = :id AND e.status = :pending")
+    int markProcessed(@Param("id") UUID id, @Param("now") Instant now,
+                      @Param("pending") WebhookInboxStatus pending, @Param("processed") WebhookInboxStatus processed);
+
+    @Modifying
+    @Query("UPDATE PaymentWebhookInbox e SET e.attempts = e.attempts + 1, e.lastError = :error, e.status = :status "
+            + "WHERE e.id = :id AND e.status = :pending")
+    int recordFailure(@Param("id") UUID id, @Param("error") String error,
+                      @Param("pending") WebhookInboxStatus pending, @Param("status") WebhookInboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM PaymentWebhookInbox e WHERE e.status = :processed AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("processed") WebhookInboxStatus processed, @Param("before") Instant before);
+}
@@ -0,0 +1,86 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker. CLOSED lets every call through; {@code failureThreshold} failures in a row
+ * open it; after {@code openDuration} one probe call is let through (HALF_OPEN) and its outcome closes or re-opens
+ * the circuit.
+ */
+final class GatewayCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoTime;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    GatewayCircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoTime) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /** @return false if the call must be short-circuited; a permitted call must end in one of the on* methods */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoTime.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    /** @return true if this closed a half-open circuit */
+    synchronized boolean onSuccess() {
+        boolean closed = state == State.HALF_OPEN;
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        return closed;
+    }
+
+    /** @return true if this opened the circuit */
+    synchronized boolean onFailure() {
+        probeInFlight = false;
+        if (state == State.OPEN) {
+            return false;
+        }
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoTime.getAsLong();
+            consecutiveFailures = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /** The permitted call never reached the gateway (e.g. bulkhead full); frees the probe slot without a verdict. */
+    synchronized void onNotAttempted() {
+        probeInFlight = false;
+    }
+
+    synchronized State state() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+}
@@ -1,12 +1,15 @@
 package com.kpabk.kpabk_connect.payment.service;
 
+import com.kpabk.kpabk_connect.payment.exception.PaymentGatewayNotConfiguredException;
 import com.kpabk.kpabk_connect.payment.port.PaymentGatewayPort;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
- * Default payment gateway when Razorpay is not configured. Throws on create/refund, returns false on verify.
- * When Razorpay is enabled (payment.razorpay.key-id set), RazorpayPaymentGatewayAdapter is @Primary and is used instead.
+ * Default payment gateway when Razorpay is not configured. Throws on create/refund/refund lookup, returns false on verify.
+ * When Razorpay is enabled (payment.razorpay.key-id set), ResilientPaymentGatewayAdapter wraps RazorpayPaymentGatewayAdapter instead.
  */
 @Component
 @Slf4j
@@ -14,7 +17,7 @@ public class NoOpPaymentGatewayAdapter implements PaymentGatewayPort {
 
     @Override
     public String createGatewayOrder(long amountPaise, String currency, String receipt) {
-        throw new com.kpabk.kpabk_connect.payment.exception.PaymentValidationException(
+        throw new PaymentGatewayNotConfiguredException(
                 "Payment gateway not configured. Set payment.razorpay.key-id and key-secret.");
     }
 
@@ -25,7 +28,13 @@ public class NoOpPaymentGatewayAdapter implements PaymentGatewayPort {
 
     @Override
     public String createRefund(String razorpayPaymentId, Long amountPaise) {
-        throw new com.kpabk.kpabk_connect.payment.exception.PaymentValidationException(
+        throw new PaymentGatewayNotConfiguredException(
+                "Payment gateway not configured. Set payment.razorpay.key-id and key-secret.");
+    }
+
+    @Override
+    public List<String> findRefundIds(String razorpayPaymentId) {
+        throw new PaymentGatewayNotConfiguredException(
                 "Payment gateway not configured. Set payment.razorpay.key-id and key-secret.");
     }
 }
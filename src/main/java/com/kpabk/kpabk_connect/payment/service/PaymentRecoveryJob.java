@@ -0,0 +1,106 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import com.kpabk.kpabk_connect.common.lease.LeaseService;
+import com.kpabk.kpabk_connect.payment.config.PaymentRecoveryProperties;
+import com.kpabk.kpabk_connect.payment.model.Payment;
+import com.kpabk.kpabk_connect.payment.model.PaymentStatus;
+import com.kpabk.kpabk_connect.payment.port.PaymentGatewayPort;
+import com.kpabk.kpabk_connect.payment.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Resolves payments a crash or a hung gateway call left between the before and after transactions of
+ * {@link PaymentServiceImpl#createPayment} and {@link PaymentServiceImpl#refund}. Runs on the node holding the
+ * {@value #LEASE_NAME} lease.
+ * <ul>
+ *   <li>CREATED past the timeout: the client never received a gateway order id, so nobody can pay it; marked FAILED.</li>
+ *   <li>REFUND_PENDING past the timeout: no refund webhook confirmed it, so the gateway is asked for the payment's
+ *   refunds. Any refund there makes it REFUNDED; none sets it back to SUCCESS, refundable again. If the gateway cannot
+ *   answer, the claim is not released (a second refund could pay out twice): the payment moves to REFUND_REVIEW,
+ *   which later runs keep looking up until the gateway answers.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class PaymentRecoveryJob {
+
+    static final String LEASE_NAME = "payment-recovery";
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentStateService paymentStateService;
+    private final PaymentGatewayPort paymentGatewayPort;
+    private final PaymentRecoveryProperties properties;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentRecoveryJob(
+            PaymentRepository paymentRepository,
+            PaymentStateService paymentStateService,
+            PaymentGatewayPort paymentGatewayPort,
+            PaymentRecoveryProperties properties,
+            LeaseService leaseService,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.paymentRepository = paymentRepository;
+        this.paymentStateService = paymentStateService;
+        this.paymentGatewayPort = paymentGatewayPort;
+        this.properties = properties;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.recovery.interval:PT5M}", initialDelayString = "${payment.recovery.initial-delay:PT1M}")
+    public void recover() {
+        if (!leaseService.tryAcquire(LEASE_NAME, properties.getLeaseTtl())) {
+            return;
+        }
+        Instant now = Instant.now();
+        Integer expired = transactionTemplate.execute(tx -> paymentRepository.updateStaleStatus(
+                PaymentStatus.CREATED, PaymentStatus.FAILED, now.minus(properties.getCreatedTimeout()), now));
+        if (expired != null && expired > 0) {
+            log.warn("Marked {} payments FAILED that never received a gateway order", expired);
+        }
+        List<Payment> unconfirmed = paymentRepository.findStale(
+                EnumSet.of(PaymentStatus.REFUND_PENDING, PaymentStatus.REFUND_REVIEW),
+                now.minus(properties.getRefundPendingTimeout()),
+                PageRequest.ofSize(properties.getRefundCheckBatchSize()));
+        for (Payment payment : unconfirmed) {
+            settleUnconfirmedRefund(payment);
+        }
+    }
+
+    /** Every transition is guarded by the status read here, so a refund webhook arriving meanwhile wins. */
+    private void settleUnconfirmedRefund(Payment payment) {
+        List<String> refundIds;
+        try {
+            refundIds = paymentGatewayPort.findRefundIds(payment.getRazorpayPaymentId());
+        } catch (RuntimeException e) {
+            if (payment.getStatus() == PaymentStatus.REFUND_PENDING
+                    && paymentStateService.markRefundForReview(payment.getId())) {
+                log.error("Refund of payment {} unconfirmed and the gateway lookup failed; moved to REFUND_REVIEW: {}",
+                        payment.getId(), e.getMessage());
+            } else {
+                log.warn("Refund of payment {} still unconfirmed, gateway lookup failed: {}", payment.getId(), e.getMessage());
+            }
+            return;
+        }
+        if (!refundIds.isEmpty()) {
+            if (paymentStateService.confirmRefund(payment.getId(), payment.getStatus())) {
+                log.warn("Unconfirmed refund of payment {} found at the gateway ({}); marked REFUNDED",
+                        payment.getId(), refundIds);
+            }
+        } else if (paymentStateService.releaseUnconfirmedRefund(payment.getId(), payment.getStatus())) {
+            log.warn("Gateway holds no refund for payment {}; set back from {} to SUCCESS",
+                    payment.getId(), payment.getStatus());
+        }
+    }
+}
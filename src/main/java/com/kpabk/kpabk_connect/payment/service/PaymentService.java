@@ -38,7 +38,14 @@ public interface PaymentService {
 
     /**
      * Webhook: verify signature, ensure idempotency, process event, update payment and order.
+     * {@code eventId} is the gateway's event id header (null if absent); it is the idempotency key when present.
      * Returns true if processed (or already processed), false if signature invalid or event ignored.
      */
-    boolean processWebhook(String rawBody, String signature);
+    boolean processWebhook(String rawBody, String signature, String eventId);
+
+    /**
+     * Webhook whose signature was already verified (async inbox): idempotency check, event processing,
+     * payment and order update. Same contract as {@link #processWebhook}.
+     */
+    boolean processVerifiedWebhook(String rawBody, String eventId);
 }
@@ -1,18 +1,14 @@
 package com.kpabk.kpabk_connect.payment.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kpabk.kpabk_connect.payment.dto.*;
 import com.kpabk.kpabk_connect.payment.exception.*;
 import com.kpabk.kpabk_connect.payment.model.Payment;
 import com.kpabk.kpabk_connect.payment.model.PaymentMethod;
 import com.kpabk.kpabk_connect.payment.model.PaymentStatus;
-import com.kpabk.kpabk_connect.payment.model.PaymentWebhookEvent;
 import com.kpabk.kpabk_connect.payment.port.OrderAmountPort;
 import com.kpabk.kpabk_connect.payment.port.OrderPaymentStatusPort;
 import com.kpabk.kpabk_connect.payment.port.PaymentGatewayPort;
 import com.kpabk.kpabk_connect.payment.repository.PaymentRepository;
-import com.kpabk.kpabk_connect.payment.repository.PaymentWebhookEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,8 +21,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
-import java.util.Optional;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -34,18 +35,30 @@ import java.util.UUID;
 @Slf4j
 public class PaymentServiceImpl implements PaymentService {
 
+    /** Column length of payment_webhook_events.razorpay_event_id. */
+    private static final int MAX_EVENT_ID_LENGTH = 64;
+    /** Captured at the gateway; late captured/failed webhooks leave these alone. */
+    private static final Set<PaymentStatus> CAPTURED = EnumSet.of(PaymentStatus.SUCCESS,
+            PaymentStatus.REFUND_PENDING, PaymentStatus.REFUND_REVIEW, PaymentStatus.REFUNDED);
+
     private final PaymentRepository paymentRepository;
-    private final PaymentWebhookEventRepository webhookEventRepository;
     private final PaymentGatewayPort paymentGatewayPort;
     private final OrderAmountPort orderAmountPort;
     private final OrderPaymentStatusPort orderPaymentStatusPort;
-    private final ObjectMapper objectMapper;
+    private final WebhookPayloadParser webhookPayloadParser;
+    private final WebhookEventDeduplicator webhookEventDeduplicator;
+    private final PaymentStateService paymentStateService;
 
     @Value("${payment.razorpay.key-id:}")
     private String razorpayKeyId;
 
+    /**
+     * Record (CREATED) -> gateway order, outside any transaction -> INITIATED. A payment left CREATED by a crash
+     * or a hung gateway call is expired by {@link PaymentRecoveryJob}. An unavailable gateway (timeout, open
+     * circuit, full bulkhead, server error) fails the attempt with a retryable 503; only a gateway that is not
+     * configured at all falls back to a test payment.
+     */
     @Override
-    @Transactional
     public PaymentInitiationResponse createPayment(UUID orderId) {
         BigDecimal amount = orderAmountPort.getOrderAmount(orderId);
         String currency = orderAmountPort.getOrderCurrency(orderId);
@@ -54,6 +67,7 @@ public class PaymentServiceImpl implements PaymentService {
         }
         long amountPaise = amount.multiply(BigDecimal.valueOf(100)).setScale(0, RoundingMode.HALF_UP).longValue();
         String receipt = "ord_" + orderId.toString().replace("-", "").substring(0, 20);
+        Payment payment = paymentStateService.createPending(orderId, amount, currency != null ? currency : "INR");
 
         String razorpayOrderId;
         String keyIdToReturn = razorpayKeyId;
@@ -61,32 +75,20 @@ public class PaymentServiceImpl implements PaymentService {
 
         try {
             razorpayOrderId = paymentGatewayPort.createGatewayOrder(amountPaise, currency, receipt);
-        } catch (PaymentValidationException e) {
-            // Fall back to test payment when gateway is not configured or auth fails (e.g. invalid keys, not onboarded)
-            String msg = e.getMessage() != null ? e.getMessage() : "";
-            boolean gatewayUnavailable = msg.contains("not configured")
-                    || msg.contains("Authentication failed")
-                    || msg.contains("BAD_REQUEST_ERROR")
-                    || msg.contains("Gateway order creation failed");
-            if (gatewayUnavailable) {
-                testMode = true;
-                razorpayOrderId = "test_order_" + orderId.toString().replace("-", "");
-                keyIdToReturn = "test";
-                log.info("Payment gateway unavailable (not configured or auth failed); creating test payment for order {}: {}", orderId, razorpayOrderId);
-            } else {
-                throw e;
-            }
+        } catch (PaymentGatewayNotConfiguredException e) {
+            // No gateway configured (no keys): test payment. Any other unavailability fails this attempt below.
+            testMode = true;
+            razorpayOrderId = "test_order_" + orderId.toString().replace("-", "");
+            keyIdToReturn = "test";
+            log.info("Payment gateway not configured; creating test payment for order {}: {}", orderId, razorpayOrderId);
+        } catch (RuntimeException e) {
+            paymentStateService.markFailed(payment.getId());
+            throw e;
         }
 
-        Payment payment = Payment.builder()
-                .orderId(orderId)
-                .razorpayOrderId(razorpayOrderId)
-                .amount(amount)
-                .currency(currency != null ? currency : "INR")
-                .status(PaymentStatus.CREATED)
-                .build();
-        payment.setStatus(PaymentStatus.INITIATED);
-        payment = paymentRepository.save(payment);
+        if (!paymentStateService.markInitiated(payment.getId(), razorpayOrderId)) {
+            throw new PaymentValidationException("Payment attempt expired; please retry");
+        }
 
         log.info("Payment created for order {}: paymentId={}, razorpayOrderId={}, testMode={}", orderId, payment.getId(), razorpayOrderId, testMode);
         return PaymentInitiationResponse.builder()
@@ -135,8 +137,12 @@ public class PaymentServiceImpl implements PaymentService {
         return toPageResponse(paymentPage);
     }
 
+    /**
+     * Claim (SUCCESS -> REFUND_PENDING) -> gateway refund, outside any transaction -> REFUNDED. A failed gateway call
+     * releases the claim; a claim left by a crash or a timed-out call is resolved by the refund webhook or
+     * {@link PaymentRecoveryJob}.
+     */
     @Override
-    @Transactional
     public RefundResponse refund(UUID paymentId, BigDecimal amount, String reason) {
         Payment payment = paymentRepository.findById(paymentId)
                 .orElseThrow(() -> new PaymentNotFoundException(paymentId));
@@ -153,15 +159,24 @@ public class PaymentServiceImpl implements PaymentService {
                 throw new PaymentValidationException("Refund amount cannot exceed payment amount");
             }
         }
-        String razorpayRefundId = paymentGatewayPort.createRefund(payment.getRazorpayPaymentId(), amountPaise);
+        if (!paymentStateService.claimRefund(paymentId)) {
+            throw new PaymentValidationException("Payment is already being refunded or has changed; please reload");
+        }
+        String razorpayRefundId;
+        try {
+            razorpayRefundId = paymentGatewayPort.createRefund(payment.getRazorpayPaymentId(), amountPaise);
+        } catch (PaymentGatewayTimeoutException e) {
+            // The refund may still go through at the gateway: keep the claim for the refund webhook / recovery job
+            log.warn("Refund outcome unknown for payment {} (left REFUND_PENDING): {}", paymentId, e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            paymentStateService.releaseRefundClaim(paymentId);
+            throw e;
+        }
         BigDecimal amountRefunded = amount != null && amount.compareTo(BigDecimal.ZERO) > 0
                 ? amount
                 : payment.getAmount();
-        Instant now = Instant.now();
-        payment.setStatus(PaymentStatus.REFUNDED);
-        payment.setRefundedAt(now);
-        paymentRepository.save(payment);
-        orderPaymentStatusPort.updateOrderPaymentStatus(payment.getOrderId(), "REFUNDED");
+        Instant now = paymentStateService.completeRefund(paymentId);
         log.info("Refund completed: paymentId={}, razorpayRefundId={}, amount={}", paymentId, razorpayRefundId, amountRefunded);
         return RefundResponse.builder()
                 .paymentId(paymentId)
@@ -172,64 +187,65 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
-    @Transactional
-    public boolean processWebhook(String rawBody, String signature) {
+    public boolean processWebhook(String rawBody, String signature, String eventId) {
         if (!paymentGatewayPort.verifyWebhookSignature(rawBody, signature)) {
             log.warn("Webhook signature verification failed");
             throw new InvalidWebhookException("Invalid webhook signature");
         }
-        JsonNode root;
+        return processVerifiedWebhook(rawBody, eventId);
+    }
+
+    /** Not transactional itself: the deduplicator runs recording and processing in one transaction. */
+    @Override
+    public boolean processVerifiedWebhook(String rawBody, String eventId) {
+        WebhookPayload webhook;
         try {
-            root = objectMapper.readTree(rawBody);
+            webhook = webhookPayloadParser.parse(rawBody);
         } catch (Exception e) {
             log.error("Webhook body parse error: {}", e.getMessage());
             throw new InvalidWebhookException("Invalid webhook payload", e);
         }
-        String eventType = Optional.ofNullable(root.get("event")).map(JsonNode::asText).orElse(null);
+        String eventType = webhook.event();
         if (eventType == null || eventType.isBlank()) {
             log.warn("Webhook missing event type");
             return true;
         }
-        JsonNode payload = root.get("payload");
-        if (payload == null) {
+        if (!webhook.hasPayload()) {
             log.warn("Webhook missing payload");
             return true;
         }
-        String paymentId = null;
-        JsonNode paymentNode = payload.get("payment");
-        if (paymentNode != null && paymentNode.has("entity")) {
-            JsonNode idNode = paymentNode.get("entity").get("id");
-            paymentId = (idNode != null && !idNode.isNull()) ? idNode.asText() : null;
-        }
-        if (paymentId == null && payload.has("payment") && payload.get("payment").has("id")) {
-            JsonNode idNode = payload.get("payment").get("id");
-            paymentId = (idNode != null && !idNode.isNull()) ? idNode.asText() : null;
-        }
-        String idempotencyKey = (paymentId != null ? paymentId : root.toString().hashCode() + "_") + "_" + eventType;
-        if (webhookEventRepository.existsByRazorpayEventId(idempotencyKey)) {
-            log.debug("Webhook already processed (idempotent): {}", idempotencyKey);
-            return true;
-        }
-        PaymentWebhookEvent event = PaymentWebhookEvent.builder()
-                .razorpayEventId(idempotencyKey)
-                .eventType(eventType)
-                .rawPayload(rawBody)
-                .processedAt(Instant.now())
-                .build();
-        webhookEventRepository.save(event);
+        webhookEventDeduplicator.processOnce(idempotencyKey(eventId, webhook, rawBody), eventType, rawBody, () -> {
+            switch (eventType) {
+                case "payment.captured" -> handlePaymentCaptured(webhook, rawBody);
+                case "payment.failed" -> handlePaymentFailed(webhook);
+                case "refund.processed", "refund.created" -> handleRefundProcessed(webhook);
+                default -> log.debug("Unhandled webhook event type: {}", eventType);
+            }
+        });
+        return true;
+    }
 
-        switch (eventType) {
-            case "payment.captured" -> handlePaymentCaptured(payload, rawBody);
-            case "payment.failed" -> handlePaymentFailed(payload, rawBody);
-            case "refund.processed", "refund.created" -> handleRefundProcessed(payload, rawBody);
-            default -> log.debug("Unhandled webhook event type: {}", eventType);
+    /**
+     * The gateway's event id when the delivery carries one; otherwise (older or manual deliveries) the SHA-256 of
+     * event type + raw body, which is exactly 64 hex chars and identical only for byte-identical redeliveries.
+     */
+    private static String idempotencyKey(String eventId, WebhookPayload webhook, String rawBody) {
+        if (eventId != null && !eventId.isBlank() && eventId.length() <= MAX_EVENT_ID_LENGTH) {
+            return eventId;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(webhook.event().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(rawBody.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return true;
     }
 
-    private void handlePaymentCaptured(JsonNode payload, String rawBody) {
-        String razorpayPaymentId = extractPaymentId(payload);
-        String razorpayOrderId = extractOrderId(payload);
+    private void handlePaymentCaptured(WebhookPayload webhook, String rawBody) {
+        String razorpayPaymentId = webhook.paymentId();
+        String razorpayOrderId = webhook.paymentOrderId();
         if (razorpayPaymentId == null || razorpayOrderId == null) {
             log.warn("payment.captured missing payment id or order id. Payload: {}", rawBody.substring(0, Math.min(500, rawBody.length())));
             return;
@@ -239,26 +255,26 @@ public class PaymentServiceImpl implements PaymentService {
             log.warn("payment.captured: no local payment for razorpay order {}", razorpayOrderId);
             return;
         }
-        if (payment.getStatus() == PaymentStatus.SUCCESS) {
-            log.debug("Payment already marked SUCCESS: {}", payment.getId());
+        if (CAPTURED.contains(payment.getStatus())) {
+            log.debug("Payment already captured: {} ({})", payment.getId(), payment.getStatus());
             return;
         }
         payment.setRazorpayPaymentId(razorpayPaymentId);
         payment.setStatus(PaymentStatus.SUCCESS);
-        payment.setPaymentMethod(mapMethod(extractMethod(payload)));
+        payment.setPaymentMethod(mapMethod(webhook.paymentMethod()));
         paymentRepository.save(payment);
         orderPaymentStatusPort.updateOrderPaymentStatus(payment.getOrderId(), "PAID");
         log.info("Payment captured: paymentId={}, orderId={}", payment.getId(), payment.getOrderId());
     }
 
-    private void handlePaymentFailed(JsonNode payload, String rawBody) {
-        String razorpayOrderId = extractOrderId(payload);
+    private void handlePaymentFailed(WebhookPayload webhook) {
+        String razorpayOrderId = webhook.paymentOrderId();
         if (razorpayOrderId == null) {
             log.warn("payment.failed missing order id");
             return;
         }
         paymentRepository.findByRazorpayOrderId(razorpayOrderId).ifPresent(payment -> {
-            if (payment.getStatus() == PaymentStatus.SUCCESS || payment.getStatus() == PaymentStatus.REFUNDED) {
+            if (CAPTURED.contains(payment.getStatus())) {
                 return;
             }
             payment.setStatus(PaymentStatus.FAILED);
@@ -268,11 +284,8 @@ public class PaymentServiceImpl implements PaymentService {
         });
     }
 
-    private void handleRefundProcessed(JsonNode payload, String rawBody) {
-        JsonNode refundEntity = payload.has("refund") ? payload.get("refund").get("entity") : null;
-        if (refundEntity == null) return;
-        JsonNode pidNode = refundEntity.get("payment_id");
-        String paymentId = (pidNode != null && !pidNode.isNull()) ? pidNode.asText() : null;
+    private void handleRefundProcessed(WebhookPayload webhook) {
+        String paymentId = webhook.refundPaymentId();
         if (paymentId == null) return;
         paymentRepository.findByRazorpayPaymentId(paymentId).ifPresent(payment -> {
             if (payment.getStatus() == PaymentStatus.REFUNDED) return;
@@ -284,30 +297,6 @@ public class PaymentServiceImpl implements PaymentService {
         });
     }
 
-    private String extractPaymentId(JsonNode payload) {
-        if (!payload.has("payment")) return null;
-        JsonNode entity = payload.get("payment").get("entity");
-        if (entity == null || !entity.has("id")) return null;
-        JsonNode id = entity.get("id");
-        return (id != null && !id.isNull()) ? id.asText() : null;
-    }
-
-    private String extractOrderId(JsonNode payload) {
-        if (!payload.has("payment")) return null;
-        JsonNode entity = payload.get("payment").get("entity");
-        if (entity == null || !entity.has("order_id")) return null;
-        JsonNode orderId = entity.get("order_id");
-        return (orderId != null && !orderId.isNull()) ? orderId.asText() : null;
-    }
-
-    private String extractMethod(JsonNode payload) {
-        if (!payload.has("payment")) return null;
-        JsonNode entity = payload.get("payment").get("entity");
-        if (entity == null || !entity.has("method")) return null;
-        JsonNode method = entity.get("method");
-        return (method != null && !method.isNull()) ? method.asText() : null;
-    }
-
     private PaymentMethod mapMethod(String method) {
         if (method == null) return PaymentMethod.OTHER;
         return switch (method.toLowerCase()) {
@@ -0,0 +1,109 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import com.kpabk.kpabk_connect.payment.exception.PaymentNotFoundException;
+import com.kpabk.kpabk_connect.payment.model.Payment;
+import com.kpabk.kpabk_connect.payment.model.PaymentStatus;
+import com.kpabk.kpabk_connect.payment.port.OrderPaymentStatusPort;
+import com.kpabk.kpabk_connect.payment.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The short transactions around gateway calls. {@link PaymentServiceImpl} calls the gateway between them, with no
+ * transaction (and no pooled connection) open. Every transition is a guarded UPDATE, so a concurrent webhook or the
+ * recovery sweep ({@link PaymentRecoveryJob}) wins or loses cleanly.
+ */
+@Service
+@RequiredArgsConstructor
+class PaymentStateService {
+
+    private final PaymentRepository paymentRepository;
+    private final OrderPaymentStatusPort orderPaymentStatusPort;
+
+    /** Records the payment attempt before the gateway order is created. */
+    @Transactional
+    public Payment createPending(UUID orderId, BigDecimal amount, String currency) {
+        return paymentRepository.save(Payment.builder()
+                .orderId(orderId)
+                .amount(amount)
+                .currency(currency)
+                .status(PaymentStatus.CREATED)
+                .build());
+    }
+
+    /** @return false if the payment is no longer CREATED (expired by the recovery sweep) */
+    @Transactional
+    public boolean markInitiated(UUID paymentId, String razorpayOrderId) {
+        return paymentRepository.attachGatewayOrder(paymentId, razorpayOrderId,
+                PaymentStatus.CREATED, PaymentStatus.INITIATED, Instant.now()) == 1;
+    }
+
+    @Transactional
+    public void markFailed(UUID paymentId) {
+        paymentRepository.updateStatusWhereCurrent(paymentId, PaymentStatus.CREATED, PaymentStatus.FAILED, Instant.now());
+    }
+
+    /**
+     * Claims a SUCCESS payment for refund (SUCCESS -> REFUND_PENDING), so concurrent refund requests cannot both
+     * reach the gateway.
+     *
+     * @return false if the payment is not SUCCESS anymore
+     */
+    @Transactional
+    public boolean claimRefund(UUID paymentId) {
+        return paymentRepository.updateStatusWhereCurrent(paymentId,
+                PaymentStatus.SUCCESS, PaymentStatus.REFUND_PENDING, Instant.now()) == 1;
+    }
+
+    /** Gateway refund failed: back to SUCCESS. */
+    @Transactional
+    public void releaseRefundClaim(UUID paymentId) {
+        paymentRepository.updateStatusWhereCurrent(paymentId,
+                PaymentStatus.REFUND_PENDING, PaymentStatus.SUCCESS, Instant.now());
+    }
+
+    /**
+     * REFUND_PENDING -> REFUNDED and the order's payment status. If a refund webhook got there first, the payment is
+     * already REFUNDED and the order update was published by it.
+     */
+    @Transactional
+    public Instant completeRefund(UUID paymentId) {
+        Instant now = Instant.now();
+        markRefunded(paymentId, PaymentStatus.REFUND_PENDING, now);
+        return now;
+    }
+
+    /** Recovery: the gateway holds a refund for an unconfirmed claim ({@code source}); REFUNDED as in completeRefund. */
+    @Transactional
+    public boolean confirmRefund(UUID paymentId, PaymentStatus source) {
+        return markRefunded(paymentId, source, Instant.now());
+    }
+
+    /** Recovery: the gateway holds no refund for an unconfirmed claim ({@code source}); refundable again. */
+    @Transactional
+    public boolean releaseUnconfirmedRefund(UUID paymentId, PaymentStatus source) {
+        return paymentRepository.updateStatusWhereCurrent(paymentId, source, PaymentStatus.SUCCESS, Instant.now()) == 1;
+    }
+
+    /** Recovery: the gateway could not be asked about an unconfirmed claim; REFUND_PENDING -> REFUND_REVIEW. */
+    @Transactional
+    public boolean markRefundForReview(UUID paymentId) {
+        return paymentRepository.updateStatusWhereCurrent(paymentId,
+                PaymentStatus.REFUND_PENDING, PaymentStatus.REFUND_REVIEW, Instant.now()) == 1;
+    }
+
+    private boolean markRefunded(UUID paymentId, PaymentStatus source, Instant now) {
+        if (paymentRepository.markRefunded(paymentId, source, PaymentStatus.REFUNDED, now) != 1) {
+            return false;
+        }
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new PaymentNotFoundException(paymentId));
+        orderPaymentStatusPort.updateOrderPaymentStatus(payment.getOrderId(), "REFUNDED");
+        return true;
+    }
+}
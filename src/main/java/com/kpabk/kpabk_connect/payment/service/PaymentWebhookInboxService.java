@@ -0,0 +1,254 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import com.kpabk.kpabk_connect.common.lease.LeaseService;
+import com.kpabk.kpabk_connect.payment.config.PaymentWebhookProperties;
+import com.kpabk.kpabk_connect.payment.exception.InvalidWebhookException;
+import com.kpabk.kpabk_connect.payment.model.PaymentWebhookInbox;
+import com.kpabk.kpabk_connect.payment.model.WebhookInboxStatus;
+import com.kpabk.kpabk_connect.payment.port.PaymentGatewayPort;
+import com.kpabk.kpabk_connect.payment.repository.PaymentWebhookInboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Async webhook ingestion (payment.webhook.mode=ASYNC). {@link #accept} verifies the signature, stores the raw event
+ * in payment_webhook_inbox and queues it; the request returns without touching payments or orders.
+ * <p>
+ * Events are processed by single-threaded partitions chosen by razorpay order id. Order within one payment is kept
+ * by a head-of-partition check: a row is only processed when no earlier row with the same partition key is still
+ * PENDING (failed and waiting for a retry, overflowed, or queued on another node); otherwise it is left PENDING and
+ * handled after the earlier one by the recovery sweep. Rows of one key are therefore processed in id (arrival)
+ * order across nodes, except for two nodes inserting rows of the same payment at the same instant. Events without a
+ * partition key are not ordered. Once a row is FAILED (max attempts) it no longer holds back later rows.
+ * Partition queues are bounded: an event that does not fit stays PENDING in the
+ * inbox and is picked up by the recovery sweep, which also requeues whatever a stopped or crashed node left behind.
+ * The sweep and the purge run on the node holding the {@value #LEASE_NAME} lease. Processing is idempotent
+ * ({@link PaymentService#processVerifiedWebhook}), so an event handled twice has no further effect.
+ */
+@Service
+@Slf4j
+public class PaymentWebhookInboxService {
+
+    static final String LEASE_NAME = "payment-webhook-recovery";
+    private static final String NO_PARTITION_KEY = "-";
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final int MAX_PARTITION_KEY_LENGTH = 64;
+    private static final int MAX_EVENT_ID_LENGTH = 64;
+
+    private final PaymentWebhookInboxRepository inboxRepository;
+    private final PaymentService paymentService;
+    private final PaymentGatewayPort paymentGatewayPort;
+    private final WebhookEventDeduplicator webhookEventDeduplicator;
+    private final WebhookPayloadParser webhookPayloadParser;
+    private final PaymentWebhookProperties properties;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final List<ThreadPoolExecutor> partitions = new ArrayList<>();
+    /** Inbox ids currently queued or running on this node; keeps the sweep from queueing them twice. */
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+
+    public PaymentWebhookInboxService(
+            PaymentWebhookInboxRepository inboxRepository,
+            PaymentService paymentService,
+            PaymentGatewayPort paymentGatewayPort,
+            WebhookEventDeduplicator webhookEventDeduplicator,
+            WebhookPayloadParser webhookPayloadParser,
+            PaymentWebhookProperties properties,
+            LeaseService leaseService,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.inboxRepository = inboxRepository;
+        this.paymentService = paymentService;
+        this.paymentGatewayPort = paymentGatewayPort;
+        this.webhookEventDeduplicator = webhookEventDeduplicator;
+        this.webhookPayloadParser = webhookPayloadParser;
+        this.properties = properties;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        if (isAsync()) {
+            for (int i = 0; i < properties.getPartitions(); i++) {
+                String threadName = "webhook-partition-" + i;
+                partitions.add(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, threadName);
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.AbortPolicy()));
+            }
+        }
+    }
+
+    public boolean isAsync() {
+        return properties.getMode() == PaymentWebhookProperties.Mode.ASYNC;
+    }
+
+    /**
+     * Verifies and durably stores the webhook, then queues it for processing. A redelivery of an event id processed
+     * recently on this node is acknowledged without being stored.
+     *
+     * @throws InvalidWebhookException if the signature or the JSON is invalid (nothing is stored)
+     */
+    public void accept(String rawBody, String signature, String eventId) {
+        if (!paymentGatewayPort.verifyWebhookSignature(rawBody, signature)) {
+            log.warn("Webhook signature verification failed");
+            throw new InvalidWebhookException("Invalid webhook signature");
+        }
+        if (eventId != null && webhookEventDeduplicator.isRecentlyProcessed(eventId)) {
+            log.debug("Webhook already processed (recent): {}", eventId);
+            return;
+        }
+        PaymentWebhookInbox row = inboxRepository.save(PaymentWebhookInbox.builder()
+                .partitionKey(partitionKey(rawBody))
+                .eventId(eventId != null && eventId.length() <= MAX_EVENT_ID_LENGTH ? eventId : null)
+                .rawPayload(rawBody)
+                .build());
+        if (!enqueue(row)) {
+            log.debug("Webhook partition queue full; inbox row {} left for the recovery sweep", row.getId());
+        }
+    }
+
+    /** Requeues PENDING rows that are not in any live queue: overflow, failed attempts, rows of stopped nodes. */
+    @Scheduled(fixedDelayString = "${payment.webhook.recovery-interval:PT30S}",
+            initialDelayString = "${payment.webhook.recovery-initial-delay:PT10S}")
+    public void recover() {
+        if (!isAsync() || !leaseService.tryAcquire(LEASE_NAME, properties.getLeaseTtl())) {
+            return;
+        }
+        List<PaymentWebhookInbox> pending = inboxRepository.findByStatusReceivedBefore(WebhookInboxStatus.PENDING,
+                Instant.now().minus(properties.getRecoveryGrace()), PageRequest.ofSize(properties.getRecoveryBatchSize()));
+        int requeued = 0;
+        for (PaymentWebhookInbox row : pending) {
+            if (queued.contains(row.getId())) {
+                continue;
+            }
+            if (!enqueue(row)) {
+                break;
+            }
+            requeued++;
+        }
+        if (requeued > 0) {
+            log.info("Requeued {} pending webhook inbox rows", requeued);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhook.cleanup-interval:PT1H}")
+    public void purgeProcessed() {
+        if (!isAsync() || !leaseService.tryAcquire(LEASE_NAME, properties.getLeaseTtl())) {
+            return;
+        }
+        Instant before = Instant.now().minus(properties.getRetention());
+        Integer removed = transactionTemplate.execute(tx ->
+                inboxRepository.deleteProcessedBefore(WebhookInboxStatus.PROCESSED, before));
+        if (removed != null && removed > 0) {
+            log.debug("Purged {} processed webhook inbox rows", removed);
+        }
+    }
+
+    /** Stops the partitions; queued events stay PENDING in the inbox and are recovered by the next sweep. */
+    @PreDestroy
+    public void shutdown() {
+        partitions.forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor partition : partitions) {
+            try {
+                partition.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** @return false if the partition queue is full (backpressure) */
+    private boolean enqueue(PaymentWebhookInbox row) {
+        UUID id = row.getId();
+        if (!queued.add(id)) {
+            return true;
+        }
+        ThreadPoolExecutor partition = partitions.get(Math.floorMod(row.getPartitionKey().hashCode(), partitions.size()));
+        String partitionKey = row.getPartitionKey();
+        String rawPayload = row.getRawPayload();
+        String eventId = row.getEventId();
+        int attempts = row.getAttempts();
+        try {
+            partition.execute(() -> process(id, partitionKey, rawPayload, eventId, attempts));
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(id);
+            return false;
+        }
+    }
+
+    /**
+     * Processing commits on its own; if marking the row fails, the retry is recognized as a duplicate. A row behind
+     * an earlier PENDING row of its payment is skipped without an attempt and picked up again by the sweep.
+     */
+    private void process(UUID id, String partitionKey, String rawPayload, String eventId, int attempts) {
+        try {
+            if (!NO_PARTITION_KEY.equals(partitionKey)
+                    && inboxRepository.existsEarlierPending(partitionKey, id, WebhookInboxStatus.PENDING)) {
+                log.debug("Webhook inbox row {} waits for an earlier event of {}", id, partitionKey);
+                return;
+            }
+            paymentService.processVerifiedWebhook(rawPayload, eventId);
+            transactionTemplate.executeWithoutResult(tx -> inboxRepository.markProcessed(
+                    id, Instant.now(), WebhookInboxStatus.PENDING, WebhookInboxStatus.PROCESSED));
+        } catch (RuntimeException e) {
+            recordFailure(id, attempts + 1, e);
+        } finally {
+            queued.remove(id);
+        }
+    }
+
+    private void recordFailure(UUID id, int attempts, RuntimeException error) {
+        boolean failed = attempts >= properties.getMaxAttempts();
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        String lastError = message;
+        try {
+            transactionTemplate.executeWithoutResult(tx -> inboxRepository.recordFailure(id, lastError,
+                    WebhookInboxStatus.PENDING, failed ? WebhookInboxStatus.FAILED : WebhookInboxStatus.PENDING));
+        } catch (RuntimeException e) {
+            log.warn("Could not record failure of webhook inbox row {}: {}", id, e.getMessage());
+        }
+        if (failed) {
+            log.error("Webhook inbox row {} failed after {} attempts: {}", id, attempts, message);
+        } else {
+            log.warn("Webhook inbox row {} failed (attempt {}), retried by the recovery sweep: {}", id, attempts, message);
+        }
+    }
+
+    /** Razorpay order id of payment events, payment id of refund events; a constant key when neither is present. */
+    private String partitionKey(String rawBody) {
+        WebhookPayload webhook;
+        try {
+            webhook = webhookPayloadParser.parse(rawBody);
+        } catch (Exception e) {
+            throw new InvalidWebhookException("Invalid webhook payload", e);
+        }
+        String key = webhook.paymentOrderId() != null ? webhook.paymentOrderId() : webhook.refundPaymentId();
+        if (key == null || key.isBlank()) {
+            return NO_PARTITION_KEY;
+        }
+        return key.length() <= MAX_PARTITION_KEY_LENGTH ? key : key.substring(0, MAX_PARTITION_KEY_LENGTH);
+    }
+}
@@ -1,6 +1,9 @@
 package com.kpabk.kpabk_connect.payment.service;
 
 import com.kpabk.kpabk_connect.payment.config.RazorpayProperties;
+import com.kpabk.kpabk_connect.payment.exception.PaymentGatewayNotConfiguredException;
+import com.kpabk.kpabk_connect.payment.exception.PaymentGatewayUnavailableException;
+import com.kpabk.kpabk_connect.payment.exception.PaymentValidationException;
 import com.kpabk.kpabk_connect.payment.port.PaymentGatewayPort;
 import com.razorpay.Order;
 import com.razorpay.RazorpayClient;
@@ -10,17 +13,17 @@ import com.razorpay.Utils;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
-import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Razorpay implementation of PaymentGatewayPort. Active only when payment.razorpay.key-id is set and non-empty.
- * When active, this bean is @Primary so it is injected instead of NoOpPaymentGatewayAdapter.
+ * When active, ResilientPaymentGatewayAdapter wraps this bean instead of NoOpPaymentGatewayAdapter.
  * Constructor never throws so context can start; invalid config is detected on first use.
  */
 @Component
 @ConditionalOnExpression("!'${payment.razorpay.key-id:}'.isEmpty()")
-@Primary
 @Slf4j
 public class RazorpayPaymentGatewayAdapter implements PaymentGatewayPort {
 
@@ -43,7 +46,7 @@ public class RazorpayPaymentGatewayAdapter implements PaymentGatewayPort {
     @Override
     public String createGatewayOrder(long amountPaise, String currency, String receipt) {
         if (razorpayClient == null) {
-            throw new com.kpabk.kpabk_connect.payment.exception.PaymentValidationException(
+            throw new PaymentGatewayNotConfiguredException(
                     "Razorpay is not configured. Set payment.razorpay.key-id and key-secret.");
         }
         try {
@@ -57,8 +60,7 @@ public class RazorpayPaymentGatewayAdapter implements PaymentGatewayPort {
             return orderId;
         } catch (RazorpayException e) {
             log.error("Razorpay order creation failed: {}", e.getMessage());
-            throw new com.kpabk.kpabk_connect.payment.exception.PaymentValidationException(
-                    "Gateway order creation failed: " + e.getMessage(), e);
+            throw translate("Gateway order creation failed: ", e);
         }
     }
 
@@ -78,7 +80,7 @@ public class RazorpayPaymentGatewayAdapter implements PaymentGatewayPort {
     @Override
     public String createRefund(String razorpayPaymentId, Long amountPaise) {
         if (razorpayClient == null) {
-            throw new com.kpabk.kpabk_connect.payment.exception.PaymentValidationException(
+            throw new PaymentGatewayNotConfiguredException(
                     "Razorpay is not configured. Set payment.razorpay.key-id and key-secret.");
         }
         try {
@@ -92,8 +94,35 @@ public class RazorpayPaymentGatewayAdapter implements PaymentGatewayPort {
             return refundId;
         } catch (RazorpayException e) {
             log.error("Razorpay refund failed for payment {}: {}", razorpayPaymentId, e.getMessage());
-            throw new com.kpabk.kpabk_connect.payment.exception.PaymentValidationException(
-                    "Refund failed: " + e.getMessage(), e);
+            throw translate("Refund failed: ", e);
+        }
+    }
+
+    @Override
+    public List<String> findRefundIds(String razorpayPaymentId) {
+        if (razorpayClient == null) {
+            throw new PaymentGatewayNotConfiguredException(
+                    "Razorpay is not configured. Set payment.razorpay.key-id and key-secret.");
+        }
+        try {
+            return razorpayClient.payments.fetchAllRefunds(razorpayPaymentId).stream()
+                    .map(refund -> refund.<String>get("id"))
+                    .toList();
+        } catch (RazorpayException e) {
+            log.error("Razorpay refund lookup failed for payment {}: {}", razorpayPaymentId, e.getMessage());
+            throw translate("Refund lookup failed: ", e);
+        }
+    }
+
+    /**
+     * Requests the gateway rejected (4xx, reported as BAD_REQUEST_ERROR) are validation errors, except rejected
+     * credentials; everything else (network, 5xx) means the gateway is unavailable. The SDK exposes no status code.
+     */
+    private static RuntimeException translate(String prefix, RazorpayException e) {
+        String msg = e.getMessage() != null ? e.getMessage() : "";
+        if (msg.contains("BAD_REQUEST_ERROR") && !msg.contains("Authentication failed")) {
+            return new PaymentValidationException(prefix + msg, e);
         }
+        return new PaymentGatewayUnavailableException(prefix + msg, e);
     }
 }
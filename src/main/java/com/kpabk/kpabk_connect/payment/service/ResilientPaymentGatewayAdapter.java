@@ -0,0 +1,229 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import com.kpabk.kpabk_connect.payment.config.PaymentGatewayResilienceProperties;
+import com.kpabk.kpabk_connect.payment.exception.PaymentGatewayNotConfiguredException;
+import com.kpabk.kpabk_connect.payment.exception.PaymentGatewayTimeoutException;
+import com.kpabk.kpabk_connect.payment.exception.PaymentGatewayUnavailableException;
+import com.kpabk.kpabk_connect.payment.exception.PaymentValidationException;
+import com.kpabk.kpabk_connect.payment.port.PaymentGatewayPort;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The {@link PaymentGatewayPort} the application uses: wraps the configured adapter (Razorpay when
+ * payment.razorpay.key-id is set, otherwise the no-op one) with a per-operation timeout, a semaphore bulkhead and a
+ * circuit breaker, and counts every call by outcome.
+ * <p>
+ * Unavailability (circuit open, bulkhead full, timeout, transport or server error, rejected credentials) surfaces as
+ * {@link PaymentGatewayUnavailableException} and counts against the circuit; a request the gateway rejected
+ * ({@link PaymentValidationException}) passes through and counts as a healthy answer. A missing configuration
+ * ({@link PaymentGatewayNotConfiguredException}) passes through without touching the circuit. A timed-out call keeps its
+ * bulkhead permit until the gateway answers. Signature verification is local and is delegated as is.
+ */
+@Component
+@Primary
+@Slf4j
+public class ResilientPaymentGatewayAdapter implements PaymentGatewayPort {
+
+    enum Operation { CREATE_ORDER, REFUND, REFUND_LOOKUP }
+
+    enum Outcome { SUCCESS, REJECTED_BY_GATEWAY, NOT_CONFIGURED, FAILURE, TIMEOUT, BULKHEAD_FULL, SHORT_CIRCUITED }
+
+    /** Per-operation outcome counts since startup, plus the current circuit state and calls in flight. */
+    public record GatewayStats(String circuitState, int callsInFlight, Map<String, Map<String, Long>> outcomes) {
+    }
+
+    private final PaymentGatewayPort delegate;
+    private final PaymentGatewayResilienceProperties properties;
+    private final GatewayCircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final ThreadPoolExecutor executor;
+    private final Map<Operation, Map<Outcome, LongAdder>> outcomes = new EnumMap<>(Operation.class);
+
+    @Autowired
+    public ResilientPaymentGatewayAdapter(
+            ObjectProvider<RazorpayPaymentGatewayAdapter> razorpayAdapter,
+            NoOpPaymentGatewayAdapter noOpAdapter,
+            PaymentGatewayResilienceProperties properties
+    ) {
+        this(configuredGateway(razorpayAdapter.getIfAvailable(), noOpAdapter), properties);
+    }
+
+    /** Wraps any gateway, e.g. an in-process fake with injected latency. */
+    public ResilientPaymentGatewayAdapter(PaymentGatewayPort delegate, PaymentGatewayResilienceProperties properties) {
+        this(delegate, properties, System::nanoTime);
+    }
+
+    ResilientPaymentGatewayAdapter(PaymentGatewayPort delegate, PaymentGatewayResilienceProperties properties,
+                                   LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.circuitBreaker = new GatewayCircuitBreaker(
+                properties.getFailureThreshold(), properties.getOpenDuration(), nanoTime);
+        int maxCalls = Math.max(1, properties.getMaxConcurrentCalls());
+        this.bulkhead = new Semaphore(maxCalls);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Never more queued work than free threads: the bulkhead admits at most maxCalls tasks.
+        this.executor = new ThreadPoolExecutor(maxCalls, maxCalls, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payment-gateway-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        for (Operation operation : Operation.values()) {
+            Map<Outcome, LongAdder> counters = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                counters.put(outcome, new LongAdder());
+            }
+            outcomes.put(operation, counters);
+        }
+    }
+
+    private static PaymentGatewayPort configuredGateway(PaymentGatewayPort razorpayAdapter, PaymentGatewayPort noOpAdapter) {
+        return razorpayAdapter != null ? razorpayAdapter : noOpAdapter;
+    }
+
+    @Override
+    public String createGatewayOrder(long amountPaise, String currency, String receipt) {
+        return call(Operation.CREATE_ORDER, properties.getCreateOrderTimeout(),
+                () -> delegate.createGatewayOrder(amountPaise, currency, receipt));
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String body, String signature) {
+        return delegate.verifyWebhookSignature(body, signature);
+    }
+
+    @Override
+    public String createRefund(String razorpayPaymentId, Long amountPaise) {
+        return call(Operation.REFUND, properties.getRefundTimeout(),
+                () -> delegate.createRefund(razorpayPaymentId, amountPaise));
+    }
+
+    @Override
+    public List<String> findRefundIds(String razorpayPaymentId) {
+        return call(Operation.REFUND_LOOKUP, properties.getRefundLookupTimeout(),
+                () -> delegate.findRefundIds(razorpayPaymentId));
+    }
+
+    public GatewayStats stats() {
+        Map<String, Map<String, Long>> snapshot = new LinkedHashMap<>();
+        outcomes.forEach((operation, counters) -> {
+            Map<String, Long> byOutcome = new LinkedHashMap<>();
+            counters.forEach((outcome, counter) -> byOutcome.put(outcome.name(), counter.sum()));
+            snapshot.put(operation.name(), byOutcome);
+        });
+        int inFlight = Math.max(1, properties.getMaxConcurrentCalls()) - bulkhead.availablePermits();
+        return new GatewayStats(circuitBreaker.state().name(), inFlight, snapshot);
+    }
+
+    /** Calls still running are left to finish on their daemon threads. */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T call(Operation operation, Duration timeout, Supplier<T> gatewayCall) {
+        if (!circuitBreaker.tryAcquire()) {
+            record(operation, Outcome.SHORT_CIRCUITED);
+            throw new PaymentGatewayUnavailableException("Payment gateway circuit is open");
+        }
+        if (!bulkhead.tryAcquire()) {
+            circuitBreaker.onNotAttempted();
+            record(operation, Outcome.BULKHEAD_FULL);
+            throw new PaymentGatewayUnavailableException("Too many payment gateway calls in flight");
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    // Skipped if the caller already gave up while this was queued
+                    if (!result.isDone()) {
+                        result.complete(gatewayCall.get());
+                    }
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            circuitBreaker.onNotAttempted();
+            record(operation, Outcome.BULKHEAD_FULL);
+            throw new PaymentGatewayUnavailableException("Payment gateway executor is shut down", e);
+        }
+
+        try {
+            T value = result.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (circuitBreaker.onSuccess()) {
+                log.info("Payment gateway circuit closed after a successful probe");
+            }
+            record(operation, Outcome.SUCCESS);
+            return value;
+        } catch (TimeoutException e) {
+            result.cancel(false);
+            onFailure(operation, Outcome.TIMEOUT);
+            throw new PaymentGatewayTimeoutException(
+                    "Payment gateway " + operation + " timed out after " + timeout.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.onNotAttempted();
+            throw new PaymentGatewayUnavailableException("Interrupted waiting for the payment gateway", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof PaymentValidationException rejected) {
+                circuitBreaker.onSuccess();
+                record(operation, Outcome.REJECTED_BY_GATEWAY);
+                throw rejected;
+            }
+            if (cause instanceof PaymentGatewayNotConfiguredException notConfigured) {
+                circuitBreaker.onNotAttempted();
+                record(operation, Outcome.NOT_CONFIGURED);
+                throw notConfigured;
+            }
+            onFailure(operation, Outcome.FAILURE);
+            if (cause instanceof PaymentGatewayUnavailableException unavailable) {
+                throw unavailable;
+            }
+            throw new PaymentGatewayUnavailableException(
+                    "Payment gateway " + operation + " failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private void onFailure(Operation operation, Outcome outcome) {
+        record(operation, outcome);
+        if (circuitBreaker.onFailure()) {
+            log.warn("Payment gateway circuit opened after {} on {}; calls short-circuited for {}",
+                    outcome, operation, properties.getOpenDuration());
+        }
+    }
+
+    private void record(Operation operation, Outcome outcome) {
+        outcomes.get(operation).get(outcome).increment();
+    }
+}
@@ -0,0 +1,79 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import com.kpabk.kpabk_connect.common.cache.BoundedTtlCache;
+import com.kpabk.kpabk_connect.payment.config.PaymentWebhookProperties;
+import com.kpabk.kpabk_connect.payment.model.PaymentWebhookEvent;
+import com.kpabk.kpabk_connect.payment.repository.PaymentWebhookEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+/**
+ * Exactly-once processing of webhook events by event key (the gateway's event id when sent).
+ * <p>
+ * Recently processed keys are remembered in a bounded in-memory cache, so redeliveries during retry storms are
+ * answered without a database round trip. Otherwise the event row is inserted first, in the same transaction as the
+ * processing, and the unique key constraint decides: a concurrent or earlier delivery makes the insert fail, the
+ * transaction rolls back, and the event counts as a duplicate. Keys are cached only after commit, so a failed
+ * attempt is never mistaken for a processed one.
+ */
+@Component
+@Slf4j
+class WebhookEventDeduplicator {
+
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedTtlCache<String, Boolean> recentKeys;
+
+    WebhookEventDeduplicator(
+            PaymentWebhookEventRepository webhookEventRepository,
+            PaymentWebhookProperties properties,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recentKeys = new BoundedTtlCache<>(properties.getDedupeCacheMaxEntries(), properties.getDedupeCacheTtl());
+    }
+
+    /** @return true if {@code key} was processed recently on this node (may miss; never a false positive) */
+    boolean isRecentlyProcessed(String key) {
+        return recentKeys.get(key) != null;
+    }
+
+    /**
+     * Records the event and runs {@code processing} in one transaction, unless the key was processed before.
+     *
+     * @return false if the event is a duplicate (nothing was run)
+     */
+    boolean processOnce(String key, String eventType, String rawPayload, Runnable processing) {
+        if (isRecentlyProcessed(key)) {
+            log.debug("Webhook already processed (recent): {}", key);
+            return false;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                webhookEventRepository.saveAndFlush(PaymentWebhookEvent.builder()
+                        .razorpayEventId(key)
+                        .eventType(eventType)
+                        .rawPayload(rawPayload)
+                        .processedAt(Instant.now())
+                        .build());
+                processing.run();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Either the event row lost the race (duplicate) or processing hit another constraint.
+            if (!webhookEventRepository.existsByRazorpayEventId(key)) {
+                throw e;
+            }
+            log.debug("Webhook already processed (idempotent): {}", key);
+            recentKeys.put(key, Boolean.TRUE);
+            return false;
+        }
+        recentKeys.put(key, Boolean.TRUE);
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+/**
+ * The fields of a Razorpay webhook that payment processing uses, read by {@link WebhookPayloadParser}.
+ * Absent fields are null.
+ *
+ * @param event            top-level {@code event}, e.g. payment.captured
+ * @param hasPayload       whether a {@code payload} object is present
+ * @param paymentId        {@code payload.payment.entity.id}, else {@code payload.payment.id}
+ * @param paymentOrderId   {@code payload.payment.entity.order_id} (razorpay order id)
+ * @param paymentMethod    {@code payload.payment.entity.method}
+ * @param refundPaymentId  {@code payload.refund.entity.payment_id}
+ */
+record WebhookPayload(
+        String event,
+        boolean hasPayload,
+        String paymentId,
+        String paymentOrderId,
+        String paymentMethod,
+        String refundPaymentId
+) {
+}
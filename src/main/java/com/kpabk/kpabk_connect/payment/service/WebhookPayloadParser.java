@@ -0,0 +1,129 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Single-pass streaming reader for Razorpay webhooks. Walks the body once with a {@link JsonParser}, keeps only the
+ * fields of {@link WebhookPayload} and skips everything else (notes, card/bank details, acquirer data) without
+ * building a tree or materializing their values.
+ */
+@Component
+class WebhookPayloadParser {
+
+    private final JsonFactory jsonFactory;
+
+    WebhookPayloadParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /** @throws IOException if the body is not a JSON object */
+    WebhookPayload parse(String rawBody) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(rawBody)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Webhook body is not a JSON object");
+            }
+            Fields fields = new Fields();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("event".equals(name)) {
+                    fields.event = text(parser);
+                } else if ("payload".equals(name) && value == JsonToken.START_OBJECT) {
+                    fields.hasPayload = true;
+                    readPayload(parser, fields);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new WebhookPayload(fields.event, fields.hasPayload,
+                    fields.paymentEntityId != null ? fields.paymentEntityId : fields.paymentId,
+                    fields.paymentOrderId, fields.paymentMethod, fields.refundPaymentId);
+        }
+    }
+
+    /** payload: { payment: {...}, refund: {...}, ... } */
+    private void readPayload(JsonParser parser, Fields fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("payment".equals(name) && value == JsonToken.START_OBJECT) {
+                readPayment(parser, fields);
+            } else if ("refund".equals(name) && value == JsonToken.START_OBJECT) {
+                readRefund(parser, fields);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /** payment: { entity: { id, order_id, method, ... } } (older payloads: payment.id) */
+    private void readPayment(JsonParser parser, Fields fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("entity".equals(name) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "id" -> fields.paymentEntityId = text(parser);
+                        case "order_id" -> fields.paymentOrderId = text(parser);
+                        case "method" -> fields.paymentMethod = text(parser);
+                        default -> parser.skipChildren();
+                    }
+                }
+            } else if ("id".equals(name)) {
+                fields.paymentId = text(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /** refund: { entity: { payment_id, ... } } */
+    private void readRefund(JsonParser parser, Fields fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("entity".equals(name) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("payment_id".equals(field)) {
+                        fields.refundPaymentId = text(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /** Scalar as text (like {@code JsonNode.asText()}); null for JSON null, objects and arrays. */
+    private static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    private static final class Fields {
+        String event;
+        boolean hasPayload;
+        String paymentId;
+        String paymentEntityId;
+        String paymentOrderId;
+        String paymentMethod;
+        String refundPaymentId;
+    }
+}
@@ -0,0 +1,45 @@
+package com.kpabk.kpabk_connect.product.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Stock actually taken from outlet_products for one order line. Written with the decrement, deleted when the stock
+ * is given back (cancellation) or the order can no longer be cancelled (archival). Lines of untracked products have
+ * no row, so only what was reserved is ever released.
+ */
+@Schema(hidden = true)
+@Entity
+@Table(name = "stock_reservations", uniqueConstraints = @UniqueConstraint(name = "uq_stock_reservation_order_product",
+        columnNames = {"order_id", "product_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(name = "outlet_id", nullable = false)
+    private Long outletId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+}
@@ -2,10 +2,13 @@ package com.kpabk.kpabk_connect.product.repository;
 
 import com.kpabk.kpabk_connect.product.model.OutletProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,4 +24,25 @@ public interface OutletProductRepository extends JpaRepository<OutletProduct, Lo
 
     @Query("SELECT op FROM OutletProduct op JOIN FETCH op.product WHERE op.outletId = :outletId AND op.isAvailable = true")
     List<OutletProduct> findByOutletIdAndIsAvailableTrueWithProduct(@Param("outletId") Long outletId);
+
+    // ---- Stock reservation: single-row conditional updates, no read-modify-write ----
+
+    /** Decrements tracked stock only if enough is left; 0 when short or when stock is not tracked (null) / no row. */
+    @Modifying
+    @Query("UPDATE OutletProduct op SET op.stockQuantity = op.stockQuantity - :quantity, op.updatedAt = :now "
+            + "WHERE op.outletId = :outletId AND op.product.id = :productId AND op.stockQuantity >= :quantity")
+    int decrementStockIfAvailable(@Param("outletId") Long outletId, @Param("productId") UUID productId,
+                                  @Param("quantity") int quantity, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE OutletProduct op SET op.stockQuantity = op.stockQuantity + :quantity, op.updatedAt = :now "
+            + "WHERE op.outletId = :outletId AND op.product.id = :productId AND op.stockQuantity IS NOT NULL")
+    int incrementStock(@Param("outletId") Long outletId, @Param("productId") UUID productId,
+                       @Param("quantity") int quantity, @Param("now") Instant now);
+
+    /** The given products whose stock this outlet tracks (non-null stock_quantity). */
+    @Query("SELECT op.product.id FROM OutletProduct op "
+            + "WHERE op.outletId = :outletId AND op.product.id IN :productIds AND op.stockQuantity IS NOT NULL")
+    List<UUID> findStockTrackedProductIds(@Param("outletId") Long outletId,
+                                          @Param("productIds") Collection<UUID> productIds);
 }
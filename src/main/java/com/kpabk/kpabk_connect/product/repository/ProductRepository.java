@@ -3,8 +3,12 @@ package com.kpabk.kpabk_connect.product.repository;
 import com.kpabk.kpabk_connect.product.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -13,4 +17,8 @@ public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpec
     long countByCategory_Id(UUID categoryId);
 
     boolean existsByName(String name);
+
+    /** Loads the given products with their category in a single query (no lazy category loads afterwards). */
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,28 @@
+package com.kpabk.kpabk_connect.product.repository;
+
+import com.kpabk.kpabk_connect.product.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId IN :orderIds ORDER BY r.outletId, r.productId, r.id")
+    List<StockReservation> findByOrderIdIn(@Param("orderIds") Collection<UUID> orderIds);
+
+    /** @return 1 if this call removed the reservation, 0 if it was already released */
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int deleteReservation(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<UUID> orderIds);
+}
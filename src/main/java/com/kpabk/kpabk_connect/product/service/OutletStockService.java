@@ -0,0 +1,94 @@
+package com.kpabk.kpabk_connect.product.service;
+
+import com.kpabk.kpabk_connect.product.model.StockReservation;
+import com.kpabk.kpabk_connect.product.repository.OutletProductRepository;
+import com.kpabk.kpabk_connect.product.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Per-outlet stock reservation on outlet_products.stock_quantity.
+ * Each product is reserved with one conditional UPDATE (stock >= qty), so concurrent orders only contend on the
+ * row of the product they share, never on a global lock. Rows are touched in product-id order so two orders with
+ * overlapping items cannot deadlock. A null stock_quantity (or no outlet mapping) means stock is not tracked; which
+ * products are tracked is read with one query per order, so untracked lines cost no statement at all.
+ * Every successful decrement is recorded as a {@link StockReservation}; releasing gives back exactly those, once.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutletStockService {
+
+    private final OutletProductRepository outletProductRepository;
+    private final StockReservationRepository stockReservationRepository;
+
+    /**
+     * Reserves all quantities for the order in the caller's transaction.
+     *
+     * @return the first product without enough stock; the caller must then roll back (earlier decrements are not undone here)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<UUID> reserve(UUID orderId, Long outletId, Map<UUID, Integer> productQuantities) {
+        if (productQuantities.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<UUID> tracked = new HashSet<>(
+                outletProductRepository.findStockTrackedProductIds(outletId, productQuantities.keySet()));
+        Instant now = Instant.now();
+        for (Map.Entry<UUID, Integer> entry : new TreeMap<>(productQuantities).entrySet()) {
+            if (!tracked.contains(entry.getKey())) {
+                continue;
+            }
+            if (outletProductRepository.decrementStockIfAvailable(outletId, entry.getKey(), entry.getValue(), now) == 0) {
+                return Optional.of(entry.getKey());
+            }
+            stockReservationRepository.save(StockReservation.builder()
+                    .orderId(orderId)
+                    .outletId(outletId)
+                    .productId(entry.getKey())
+                    .quantity(entry.getValue())
+                    .build());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gives back what was reserved for the orders (e.g. on cancellation). Orders without reservations (untracked
+     * products, or placed before reservations were recorded) release nothing; a second release is a no-op.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        // (outlet, product) in the same order as reserve takes the rows
+        Map<Long, Map<UUID, Integer>> released = new TreeMap<>();
+        for (StockReservation reservation : stockReservationRepository.findByOrderIdIn(orderIds)) {
+            if (stockReservationRepository.deleteReservation(reservation.getId()) > 0) {
+                released.computeIfAbsent(reservation.getOutletId(), id -> new TreeMap<>())
+                        .merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+            }
+        }
+        Instant now = Instant.now();
+        released.forEach((outletId, quantities) -> quantities.forEach((productId, quantity) ->
+                outletProductRepository.incrementStock(outletId, productId, quantity, now)));
+    }
+
+    /** Drops the reservations of orders that can no longer be cancelled; their stock stays taken. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void discard(Collection<UUID> orderIds) {
+        if (!orderIds.isEmpty()) {
+            stockReservationRepository.deleteByOrderIdIn(orderIds);
+        }
+    }
+}
@@ -14,6 +14,9 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static com.kpabk.kpabk_connect.product.service.ProductServiceUtil.trimToNull;
@@ -41,6 +44,31 @@ public class ProductService {
         return mapToResponse(product);
     }
 
+    /**
+     * Bulk lookup for callers resolving many products at once (e.g. order placement).
+     * Ids that do not exist are simply absent from the returned map.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, ProductResponse> getByIds(Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, ProductResponse> products = new HashMap<>();
+        for (Product product : productRepository.findAllWithCategoryByIdIn(ids)) {
+            products.put(product.getId(), mapToResponse(product));
+        }
+        return products;
+    }
+
+    /** Maps products the caller already loaded (category fetched), without another query. */
+    public Map<UUID, ProductResponse> toResponses(Collection<Product> products) {
+        Map<UUID, ProductResponse> responses = new HashMap<>();
+        for (Product product : products) {
+            responses.put(product.getId(), mapToResponse(product));
+        }
+        return responses;
+    }
+
     @Transactional(readOnly = true)
     public PageResponse<ProductResponse> search(ProductSearchCriteria criteria, Pageable pageable) {
         Specification<Product> spec = ProductSpecification.withCriteria(
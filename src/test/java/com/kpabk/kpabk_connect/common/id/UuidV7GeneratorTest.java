@@ -0,0 +1,67 @@
+package com.kpabk.kpabk_connect.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void setsVersionSevenVariantAndCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.nextUuid();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // The counter may run ahead of the clock by a few ms under load, never behind it
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 1000);
+    }
+
+    @Test
+    void idsAreStrictlyIncreasingInTheOrderTheyWereGenerated() {
+        UUID previous = UuidV7Generator.nextUuid();
+        for (int i = 0; i < 200_000; i++) {
+            UUID next = UuidV7Generator.nextUuid();
+            // Time and counter live in the most significant half, so it alone orders the ids
+            assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()))
+                    .isPositive();
+            previous = next;
+        }
+    }
+
+    @Test
+    void concurrentCallersNeverShareATimeAndCounterValue() throws Exception {
+        int threads = 8;
+        int perThread = 100_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    long[] msbs = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        msbs[i] = UuidV7Generator.nextUuid().getMostSignificantBits();
+                    }
+                    return msbs;
+                }));
+            }
+            long[] all = new long[threads * perThread];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(results.get(t).get(60, TimeUnit.SECONDS), 0, all, t * perThread, perThread);
+            }
+            assertThat(Arrays.stream(all).distinct().count()).isEqualTo(all.length);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.kpabk.kpabk_connect.common.id;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput and on-disk size of a UUID-keyed table on H2, random v4 ids against {@link UuidV7Generator}.
+ * Each measured iteration fills a fresh file database with {@code rows} rows in JDBC batches, the way Hibernate
+ * writes orders; {@code diskBytes} is the table plus its primary key index after a checkpoint.
+ * <p>
+ * Not part of {@code mvn test}. Run with:
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.kpabk.kpabk_connect.common.id.UuidV7InsertBenchmark [-p rows=500000]
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UuidV7InsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_EVERY = 10_000;
+
+    public enum IdKind {
+        V4(UUID::randomUUID),
+        V7(UuidV7Generator::nextUuid);
+
+        private final Supplier<UUID> ids;
+
+        IdKind(Supplier<UUID> ids) {
+            this.ids = ids;
+        }
+    }
+
+    @Param({"V4", "V7"})
+    public IdKind idKind;
+
+    @Param("2000000")
+    public int rows;
+
+    private Path directory;
+    private Connection connection;
+
+    @Setup(Level.Iteration)
+    public void createDatabase() throws IOException, SQLException {
+        directory = Files.createTempDirectory("uuid-insert-bench");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("bench"), "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE orders (id UUID PRIMARY KEY, outlet_id BIGINT NOT NULL, "
+                    + "total_amount DECIMAL(12, 2) NOT NULL)");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropDatabase() throws IOException, SQLException {
+        connection.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void insert(TableSize size) throws SQLException {
+        BigDecimal amount = new BigDecimal("249.00");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO orders (id, outlet_id, total_amount) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, idKind.ids.get());
+                insert.setLong(2, i % 50);
+                insert.setBigDecimal(3, amount);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+                if (i % COMMIT_EVERY == 0) {
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        size.diskBytes = diskSpaceUsed();
+    }
+
+    private long diskSpaceUsed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT SYNC");
+            try (ResultSet rs = statement.executeQuery("CALL DISK_SPACE_USED('ORDERS')")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /** Reported next to the timing as a secondary result. */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class TableSize {
+        public long diskBytes;
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(UuidV7InsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
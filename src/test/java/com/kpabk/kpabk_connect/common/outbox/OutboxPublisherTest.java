@@ -0,0 +1,105 @@
+package com.kpabk.kpabk_connect.common.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Per-aggregate outbox order must be commit order: a publisher that persisted its event first but commits later
+ * must not be delivered before an event that committed earlier. The dispatcher polls once an hour here, so it does
+ * not pick up the test events.
+ */
+@SpringBootTest(properties = {
+        "order.archive.enabled=false",
+        "order.auto-cancel.enabled=false",
+        "outbox.poll-interval=PT1H"
+})
+class OutboxPublisherTest {
+
+    private static final String AGGREGATE = "TEST";
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void secondPublisherOfAnAggregateWaitsForTheFirstToCommit() throws Exception {
+        String aggregateId = UUID.randomUUID().toString();
+        CountDownLatch published = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(s -> {
+            outboxPublisher.publish(AGGREGATE, aggregateId, "first", Map.of());
+            published.countDown();
+            await(release);
+        }));
+        await(published);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                s -> outboxPublisher.publish(AGGREGATE, aggregateId, "second", Map.of())));
+        Thread.sleep(300);
+        assertThat(second).isNotDone();
+        release.countDown();
+
+        first.get(1, TimeUnit.MINUTES);
+        second.get(1, TimeUnit.MINUTES);
+        assertThat(eventsOf(aggregateId))
+                .extracting(OutboxEvent::getEventType, OutboxEvent::getAggregateSequence)
+                .containsExactly(tuple("first", 1L), tuple("second", 2L));
+    }
+
+    @Test
+    void aggregatesAreNumberedIndependentlyAndOnlyTheirHeadIsDue() {
+        String a = UUID.randomUUID().toString();
+        String b = UUID.randomUUID().toString();
+        transactionTemplate.executeWithoutResult(s -> {
+            outboxPublisher.publish(AGGREGATE, a, "a1", Map.of());
+            outboxPublisher.publish(AGGREGATE, b, "b1", Map.of());
+            outboxPublisher.publish(AGGREGATE, a, "a2", Map.of());
+        });
+        transactionTemplate.executeWithoutResult(s -> outboxPublisher.publish(AGGREGATE, a, "a3", Map.of()));
+
+        assertThat(eventsOf(a)).extracting(OutboxEvent::getAggregateSequence).containsExactly(1L, 2L, 3L);
+        assertThat(eventsOf(b)).extracting(OutboxEvent::getAggregateSequence).containsExactly(1L);
+        List<OutboxEvent> heads = outboxEventRepository.findDueAggregateHeads(
+                OutboxEventStatus.PENDING, Instant.now(), PageRequest.ofSize(1000));
+        assertThat(heads)
+                .filteredOn(e -> e.getAggregateId().equals(a) || e.getAggregateId().equals(b))
+                .extracting(OutboxEvent::getEventType)
+                .containsExactlyInAnyOrder("a1", "b1");
+    }
+
+    private List<OutboxEvent> eventsOf(String aggregateId) {
+        return outboxEventRepository.findAll().stream()
+                .filter(e -> e.getAggregateId().equals(aggregateId))
+                .sorted(Comparator.comparing(OutboxEvent::getAggregateSequence))
+                .toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.kpabk.kpabk_connect.order.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void exhaustedVersionConflictIsAnsweredWith409() {
+        ResponseEntity<GlobalExceptionHandler.ErrorBody> response =
+                handler.handleOptimisticLock(new OptimisticLockingFailureException("Row was updated by another transaction"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getStatus()).isEqualTo(409);
+        assertThat(response.getBody().getMessage()).isEqualTo("Order was modified concurrently; reload it and retry");
+    }
+}
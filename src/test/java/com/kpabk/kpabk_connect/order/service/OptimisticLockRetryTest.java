@@ -0,0 +1,69 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class OptimisticLockRetryTest {
+
+    private final OptimisticLockRetry retry = new OptimisticLockRetry(mock(PlatformTransactionManager.class));
+
+    @Test
+    void retriesConflictsUntilAnAttemptSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute(() -> {
+            if (attempts.incrementAndGet() < OptimisticLockRetry.MAX_ATTEMPTS) {
+                throw new OptimisticLockingFailureException("stale");
+            }
+            return "saved";
+        });
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(attempts.get()).isEqualTo(OptimisticLockRetry.MAX_ATTEMPTS);
+    }
+
+    @Test
+    void propagatesTheConflictAfterTheLastAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.run(() -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(attempts.get()).isEqualTo(OptimisticLockRetry.MAX_ATTEMPTS);
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.run(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void runsOnceInsideTheCallersTransaction() {
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThatThrownBy(() -> retry.run(() -> {
+                attempts.incrementAndGet();
+                throw new OptimisticLockingFailureException("stale");
+            })).isInstanceOf(OptimisticLockingFailureException.class);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.dto.BulkUpdateOrderStatusResponse;
+import com.kpabk.kpabk_connect.order.dto.BulkUpdateOrderStatusResponse.Outcome;
+import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.order.dto.RevenueRollupCheckResponse;
+import com.kpabk.kpabk_connect.order.model.Order;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import com.kpabk.kpabk_connect.order.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Bulk status updates validate against locked snapshots: every reported outcome matches what was written, and a
+ * concurrent payment change waits for the bulk transaction instead of slipping in between snapshot and UPDATE,
+ * where it would make the rollup move the order out of the wrong bucket.
+ */
+class OrderBulkStatusUpdateTest extends OrderServiceTestSupport {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderRevenueRollupService rollupService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reportsOneOutcomePerRequestedIdAndKeepsTheRollupConsistent() {
+        Long outletId = newOutlet();
+        List<UUID> products = newProducts(1, "40.00");
+        UUID first = placeOrder(outletId, products, 1).getId();
+        UUID second = placeOrder(outletId, products, 2).getId();
+        UUID cancelled = placeOrder(outletId, products, 1).getId();
+        orderService.updateStatus(cancelled, outletId, OrderStatus.CANCELLED);
+        UUID unknown = UUID.randomUUID();
+
+        BulkUpdateOrderStatusResponse response = orderService.bulkUpdateStatus(
+                List.of(first, cancelled, unknown, second), outletId, OrderStatus.CONFIRMED);
+
+        assertThat(response.getUpdatedCount()).isEqualTo(2);
+        assertThat(response.getResults())
+                .extracting(BulkUpdateOrderStatusResponse.Result::getOrderId, BulkUpdateOrderStatusResponse.Result::getOutcome)
+                .containsExactly(
+                        tuple(first, Outcome.UPDATED),
+                        tuple(cancelled, Outcome.INVALID_TRANSITION),
+                        tuple(unknown, Outcome.NOT_FOUND),
+                        tuple(second, Outcome.UPDATED));
+        assertThat(orderRepository.findById(second).orElseThrow().getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(orderRepository.findById(cancelled).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(rollupMismatchesOf(outletId)).isEmpty();
+    }
+
+    @Test
+    void paymentChangeWaitsForTheLockedSnapshot() throws Exception {
+        Long outletId = newOutlet();
+        OrderResponse order = placeOrder(outletId, newProducts(1, "25.00"), 1);
+        CountDownLatch snapshotTaken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // The bulk transaction holds the snapshot lock while the payment update tries to write the same row
+        CompletableFuture<Void> bulk = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(s -> {
+            orderRepository.lockStatusSnapshots(List.of(order.getId()), outletId);
+            snapshotTaken.countDown();
+            await(release);
+            orderService.bulkUpdateStatus(List.of(order.getId()), outletId, OrderStatus.CONFIRMED);
+        }));
+        await(snapshotTaken);
+        CompletableFuture<Void> payment = CompletableFuture.runAsync(
+                () -> orderService.updatePaymentStatus(order.getId(), PaymentStatus.PAID));
+        Thread.sleep(300);
+        assertThat(payment).isNotDone();
+        release.countDown();
+
+        bulk.get(1, TimeUnit.MINUTES);
+        payment.get(1, TimeUnit.MINUTES);
+
+        Order stored = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(stored.getPaymentStatus()).isEqualTo(PaymentStatus.PAID);
+        assertThat(rollupMismatchesOf(outletId)).isEmpty();
+    }
+
+    private List<RevenueRollupCheckResponse.Mismatch> rollupMismatchesOf(Long outletId) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        return rollupService.check(today.minusDays(1), today).getMismatches().stream()
+                .filter(m -> m.getOutletId().equals(outletId))
+                .toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
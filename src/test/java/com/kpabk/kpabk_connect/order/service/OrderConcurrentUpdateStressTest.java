@@ -0,0 +1,92 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One outlet thread walks an order through its statuses while payment-webhook threads keep setting it PAID.
+ * Without the version check a payment write based on a stale read would put the old status back.
+ */
+class OrderConcurrentUpdateStressTest extends OrderServiceTestSupport {
+
+    private static final List<OrderStatus> STATUS_STEPS =
+            List.of(OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.READY);
+    private static final int PAYMENT_THREADS = 8;
+    private static final int PAYMENT_CALLS_PER_THREAD = 25;
+
+    @Test
+    void interleavedStatusAndPaymentUpdatesLoseNothing() throws Exception {
+        Long outletId = newOutlet();
+        OrderResponse placed = placeOrder(outletId, newProducts(1, "99.00"), 1);
+        UUID orderId = placed.getId();
+
+        AtomicInteger statusConflicts = new AtomicInteger();
+        AtomicInteger paymentConflicts = new AtomicInteger();
+        AtomicInteger paymentSuccesses = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(PAYMENT_THREADS + 1);
+        List<Future<?>> work = new ArrayList<>();
+        try {
+            work.add(threads.submit(() -> {
+                start.await();
+                for (OrderStatus step : STATUS_STEPS) {
+                    // A client answered with 409 reloads and retries
+                    while (true) {
+                        try {
+                            orderService.updateStatus(orderId, outletId, step);
+                            break;
+                        } catch (OptimisticLockingFailureException e) {
+                            statusConflicts.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            }));
+            for (int t = 0; t < PAYMENT_THREADS; t++) {
+                work.add(threads.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < PAYMENT_CALLS_PER_THREAD; i++) {
+                        try {
+                            orderService.updatePaymentStatus(orderId, PaymentStatus.PAID);
+                            paymentSuccesses.incrementAndGet();
+                        } catch (OptimisticLockingFailureException e) {
+                            paymentConflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : work) {
+                // Anything other than a conflict (e.g. a stale write slipping through) fails the test here
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        OrderResponse result = orderService.getById(orderId);
+        assertThat(result.getStatus()).isEqualTo(OrderStatus.READY);
+        assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.PAID);
+        assertThat(paymentSuccesses.get() + paymentConflicts.get())
+                .isEqualTo(PAYMENT_THREADS * PAYMENT_CALLS_PER_THREAD);
+        assertThat(paymentSuccesses.get()).isPositive();
+        // Three status changes and one payment change; repeated PAID writes change nothing and bump nothing
+        assertThat(result.getVersion()).isEqualTo(placed.getVersion() + STATUS_STEPS.size() + 1);
+    }
+}
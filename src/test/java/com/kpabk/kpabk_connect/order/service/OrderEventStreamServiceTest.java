@@ -0,0 +1,151 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kpabk.kpabk_connect.order.config.OrderEventStreamProperties;
+import com.kpabk.kpabk_connect.order.event.OrderChangedEvent;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Event ids are {@code <epoch>-<sequence>}: a client resuming with an id of this process gets exactly what it missed,
+ * and an id from before a restart gets {@code resync} even when the new process already sent higher sequences.
+ */
+class OrderEventStreamServiceTest {
+
+    private static final Long OUTLET_ID = 7L;
+
+    private final List<OrderEventStreamService> services = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        services.forEach(OrderEventStreamService::shutdown);
+    }
+
+    @Test
+    void eventIdsCarryTheProcessEpoch() {
+        OrderEventStreamService service = newService();
+        RecordingEmitter stream = subscribe(service, null);
+        publish(service, 2);
+
+        List<SentEvent> events = stream.awaitEvents(3);
+        String epoch = epochOf(events.get(0));
+        assertThat(events).extracting(SentEvent::name).containsExactly("ready", "status-changed", "status-changed");
+        assertThat(events).extracting(SentEvent::id).containsExactly(epoch + "-0", epoch + "-1", epoch + "-2");
+    }
+
+    @Test
+    void resumingWithAnIdOfThisProcessReplaysOnlyTheMissedEvents() {
+        OrderEventStreamService service = newService();
+        String epoch = epochOf(subscribe(service, null).awaitEvents(1).get(0));
+        publish(service, 3);
+
+        List<SentEvent> resumed = subscribe(service, epoch + "-1").awaitEvents(2);
+
+        assertThat(resumed).extracting(SentEvent::id).containsExactly(epoch + "-2", epoch + "-3");
+        assertThat(resumed).extracting(SentEvent::name).containsOnly("status-changed");
+    }
+
+    @Test
+    void idFromBeforeARestartGetsResyncInsteadOfUnrelatedEvents() {
+        OrderEventStreamService beforeRestart = newService();
+        RecordingEmitter oldStream = subscribe(beforeRestart, null);
+        publish(beforeRestart, 1);
+        String lastSeen = oldStream.awaitEvents(2).get(1).id();
+
+        OrderEventStreamService afterRestart = newService();
+        String epoch = epochOf(subscribe(afterRestart, null).awaitEvents(1).get(0));
+        publish(afterRestart, 3);
+
+        List<SentEvent> resumed = subscribe(afterRestart, lastSeen).awaitEvents(1);
+        assertThat(resumed).extracting(SentEvent::name, SentEvent::id)
+                .containsExactly(tuple("resync", epoch + "-3"));
+    }
+
+    @Test
+    void malformedIdGetsResync() {
+        OrderEventStreamService service = newService();
+        subscribe(service, null).awaitEvents(1);
+
+        assertThat(subscribe(service, "17").awaitEvents(1)).extracting(SentEvent::name).containsExactly("resync");
+    }
+
+    private OrderEventStreamService newService() {
+        OrderEventStreamService service = new OrderEventStreamService(new OrderEventStreamProperties(), new ObjectMapper()) {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+        services.add(service);
+        return service;
+    }
+
+    private static RecordingEmitter subscribe(OrderEventStreamService service, String lastEventId) {
+        return (RecordingEmitter) service.subscribe(OUTLET_ID, lastEventId);
+    }
+
+    private static void publish(OrderEventStreamService service, int count) {
+        for (int i = 0; i < count; i++) {
+            service.onOrderChanged(new OrderChangedEvent(OrderChangedEvent.Type.STATUS_CHANGED, UUID.randomUUID(),
+                    "ORD-" + i, OUTLET_ID, OrderStatus.CONFIRMED, OrderStatus.PENDING, PaymentStatus.UNPAID,
+                    PaymentStatus.UNPAID, new BigDecimal("10.00"), Instant.now()));
+        }
+    }
+
+    private static String epochOf(SentEvent event) {
+        return event.id().substring(0, event.id().lastIndexOf('-'));
+    }
+
+    private record SentEvent(String id, String name) {
+    }
+
+    /** Keeps the id and name of every event instead of writing to a response. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<SentEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                text.append(part.getData());
+            }
+            String id = null;
+            String name = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                }
+            }
+            events.add(new SentEvent(id, name));
+        }
+
+        List<SentEvent> awaitEvents(int count) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count) {
+                if (System.nanoTime() > deadline) {
+                    throw new AssertionError("expected " + count + " events, got " + events);
+                }
+                Thread.onSpinWait();
+            }
+            return List.copyOf(events);
+        }
+    }
+}
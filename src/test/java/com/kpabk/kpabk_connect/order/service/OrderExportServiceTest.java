@@ -0,0 +1,167 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kpabk.kpabk_connect.order.dto.OrderExportFormat;
+import com.kpabk.kpabk_connect.order.exception.OrderValidationException;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exports a million synthetic orders from a file-backed H2 database (so the table itself is not on the heap) and
+ * checks the heap stays flat while the rows stream through.
+ */
+class OrderExportServiceTest {
+
+    private static final int ORDERS = 1_000_000;
+    private static final Instant FROM = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2026-12-31T23:59:59Z");
+    /** The first ten orders (one per second from 2026-03-01T00:00:01Z); the even ones belong to outlet 2. */
+    private static final Instant FIRST_TEN_FROM = Instant.parse("2026-03-01T00:00:01Z");
+    private static final Instant FIRST_TEN_TO = Instant.parse("2026-03-01T00:00:10Z");
+    /** Far below what a materialised million-row result (entities or strings) would take. */
+    private static final long MAX_HEAP_GROWTH_BYTES = 64L * 1024 * 1024;
+
+    @TempDir
+    static Path databaseDir;
+
+    private static JdbcDataSource dataSource;
+    private static OrderExportService exportService;
+
+    @BeforeAll
+    static void createOrders() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:file:" + databaseDir.resolve("export") + ";CACHE_SIZE=8192");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                CREATE TABLE orders (
+                    id UUID PRIMARY KEY, order_number VARCHAR(50), outlet_id BIGINT, customer_id BIGINT,
+                    status VARCHAR(20), payment_status VARCHAR(20), total_amount NUMERIC(19, 2), item_count INT,
+                    created_at TIMESTAMP(6) WITH TIME ZONE, updated_at TIMESTAMP(6) WITH TIME ZONE)""");
+        jdbc.execute("""
+                CREATE TABLE order_items (
+                    id UUID PRIMARY KEY, order_id UUID, product_id UUID, product_name VARCHAR(255), quantity INT,
+                    price_at_order_time NUMERIC(19, 2), subtotal NUMERIC(19, 2))""");
+        jdbc.execute("CREATE INDEX idx_export_created ON orders (created_at, id)");
+        jdbc.execute("CREATE INDEX idx_export_item_order ON order_items (order_id)");
+        // One line item per order.
+        // Time-ordered ids, as the application generates them, keep the bulk load append-only.
+        jdbc.update("""
+                INSERT INTO orders
+                SELECT RANDOM_UUID(7), 'ORD-' || X, CASE WHEN X <= 10 AND MOD(X, 2) = 0 THEN 2 ELSE 1 END, MOD(X, 5000),
+                       'DELIVERED', 'PAID', 49.50, 1,
+                       TIMESTAMP WITH TIME ZONE '2026-03-01 00:00:00+00' + X * INTERVAL '1' SECOND,
+                       TIMESTAMP WITH TIME ZONE '2026-03-01 00:00:00+00' + X * INTERVAL '1' SECOND
+                FROM SYSTEM_RANGE(1, ?)""", ORDERS);
+        jdbc.update("""
+                INSERT INTO order_items
+                SELECT RANDOM_UUID(7), id, RANDOM_UUID(7), 'Masala Chai, large', 3, 16.50, 49.50 FROM orders""");
+
+        exportService = new OrderExportService(dataSource, new DataSourceTransactionManager(dataSource), new ObjectMapper());
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        new JdbcTemplate(dataSource).execute("SHUTDOWN");
+    }
+
+    @Test
+    void csvExportOfAMillionOrdersStreamsWithFlatHeap() throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeapAfterGc(memory);
+        LineCountingStream out = new LineCountingStream(memory, ORDERS / 2);
+
+        exportService.export(OrderExportFormat.CSV, FROM, TO, null, null).writeTo(out);
+
+        assertThat(out.lines).isEqualTo(ORDERS + 1);
+        assertThat(out.heapMidway - baseline).isLessThan(MAX_HEAP_GROWTH_BYTES);
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerOrderWithItsItems() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(OrderExportFormat.NDJSON, FIRST_TEN_FROM, FIRST_TEN_TO, 2L, OrderStatus.DELIVERED).writeTo(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(5);
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : lines) {
+            JsonNode order = mapper.readTree(line);
+            assertThat(order.get("outletId").asLong()).isEqualTo(2);
+            assertThat(order.get("items")).hasSize(1);
+            assertThat(order.get("items").get(0).get("productName").asText()).isEqualTo("Masala Chai, large");
+        }
+    }
+
+    @Test
+    void csvQuotesFieldsContainingCommas() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(OrderExportFormat.CSV, FIRST_TEN_FROM, FIRST_TEN_TO, null, null).writeTo(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(0)).startsWith("order_id,order_number,");
+        assertThat(lines).hasSize(11);
+        assertThat(lines.get(1)).contains(",\"Masala Chai, large\",3,16.50,49.50");
+    }
+
+    @Test
+    void rejectsAnInvertedRangeBeforeTouchingTheDatabase() {
+        assertThatThrownBy(() -> exportService.export(OrderExportFormat.CSV, TO, FROM, null, null))
+                .isInstanceOf(OrderValidationException.class)
+                .hasMessage("fromDate must not be after toDate");
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /** Discards the output, counting lines and sampling the heap once the export is halfway through. */
+    private static final class LineCountingStream extends OutputStream {
+
+        private final MemoryMXBean memory;
+        private final long sampleAtLine;
+        private long lines;
+        private long heapMidway;
+
+        LineCountingStream(MemoryMXBean memory, long sampleAtLine) {
+            this.memory = memory;
+            this.sampleAtLine = sampleAtLine;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines == sampleAtLine) {
+                heapMidway = usedHeapAfterGc(memory);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
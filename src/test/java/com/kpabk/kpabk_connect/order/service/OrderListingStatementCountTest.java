@@ -0,0 +1,90 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.dto.CursorPageResponse;
+import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.order.dto.PageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderListingStatementCountTest extends OrderServiceTestSupport {
+
+    private static final int ORDERS = 30;
+
+    private Long outletId;
+    private Set<UUID> placed;
+
+    @BeforeEach
+    void placeOrders() {
+        outletId = newOutlet();
+        List<UUID> products = newProducts(2, "10.00");
+        placed = new HashSet<>();
+        for (int i = 0; i < ORDERS; i++) {
+            placed.add(placeOrder(outletId, products, 1).getId());
+        }
+    }
+
+    @Test
+    void offsetPageCostsTheSameStatementsForAnyPageSize() {
+        // Full first pages, so every size pays for the count query
+        int five = statementsForPage(5);
+        int fifteen = statementsForPage(15);
+        int thirty = statementsForPage(30);
+
+        // Page query, count query, one fetch join for the items of the whole page
+        assertThat(five).isEqualTo(3);
+        assertThat(fifteen).isEqualTo(five);
+        assertThat(thirty).isEqualTo(five);
+    }
+
+    @Test
+    void cursorSliceCostsTheSameStatementsForAnySize() {
+        int five = statementsForSlice(5);
+        int thirty = statementsForSlice(ORDERS);
+
+        // Slice query (no count), one fetch join for the items
+        assertThat(five).isEqualTo(2);
+        assertThat(thirty).isEqualTo(five);
+    }
+
+    @Test
+    void pagesStillCoverEveryOrderExactlyOnceWithItsItems() {
+        List<UUID> seen = new ArrayList<>();
+        PageResponse<OrderResponse> page;
+        int number = 0;
+        do {
+            page = orderService.getOrdersByOutlet(outletId, number++, 7, null);
+            for (OrderResponse order : page.getContent()) {
+                assertThat(order.getItems()).hasSize(2);
+                seen.add(order.getId());
+            }
+        } while (!page.isLast());
+
+        assertThat(page.getTotalElements()).isEqualTo(ORDERS);
+        assertThat(seen).doesNotHaveDuplicates();
+        assertThat(new HashSet<>(seen)).isEqualTo(placed);
+    }
+
+    private int statementsForPage(int size) {
+        StatementCounter.reset();
+        PageResponse<OrderResponse> page = orderService.getOrdersByOutlet(outletId, 0, size, null);
+        int statements = StatementCounter.total();
+        assertThat(page.getContent()).hasSize(size).allSatisfy(order -> assertThat(order.getItems()).hasSize(2));
+        return statements;
+    }
+
+    private int statementsForSlice(int size) {
+        StatementCounter.reset();
+        CursorPageResponse<OrderResponse> slice = orderService.getOrdersByOutletByCursor(outletId, null, size, null);
+        int statements = StatementCounter.total();
+        assertThat(slice.getContent()).hasSize(size).allSatisfy(order -> assertThat(order.getItems()).hasSize(2));
+        return statements;
+    }
+}
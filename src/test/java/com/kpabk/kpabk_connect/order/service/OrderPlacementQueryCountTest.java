@@ -0,0 +1,61 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.order.exception.OrderValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderPlacementQueryCountTest extends OrderServiceTestSupport {
+
+    @Test
+    void selectCountDoesNotGrowWithTheNumberOfLines() {
+        Long outletId = newOutlet();
+        List<UUID> products = newProducts(40, "12.50");
+
+        int oneLine = selectsToPlace(outletId, products.subList(0, 1));
+        int fiveLines = selectsToPlace(outletId, products.subList(0, 5));
+        int fortyLines = selectsToPlace(outletId, products);
+
+        assertThat(fiveLines).isEqualTo(oneLine);
+        assertThat(fortyLines).isEqualTo(oneLine);
+    }
+
+    @Test
+    void trackedStockAddsNoSelectPerLine() {
+        Long outletId = newOutlet();
+        List<UUID> products = newProducts(20, "3.00");
+        products.forEach(id -> stock(outletId, id, 1_000));
+
+        int oneLine = selectsToPlace(outletId, products.subList(0, 1));
+        int twentyLines = selectsToPlace(outletId, products);
+
+        assertThat(twentyLines).isEqualTo(oneLine);
+    }
+
+    @Test
+    void firstUnknownProductIsReportedAsBeforeTheBulkLookup() {
+        Long outletId = newOutlet();
+        List<UUID> lines = new ArrayList<>(newProducts(3, "1.00"));
+        UUID missing = UUID.randomUUID();
+        lines.add(1, missing);
+        lines.add(UUID.randomUUID());
+
+        assertThatThrownBy(() -> placeOrder(outletId, lines, 1))
+                .isInstanceOf(OrderValidationException.class)
+                .hasMessage("Product not found: " + missing);
+    }
+
+    private int selectsToPlace(Long outletId, List<UUID> products) {
+        StatementCounter.reset();
+        OrderResponse order = placeOrder(outletId, products, 2);
+        int selects = StatementCounter.selects();
+        assertThat(order.getItems()).hasSize(products.size());
+        return selects;
+    }
+}
@@ -0,0 +1,117 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.model.Order;
+import com.kpabk.kpabk_connect.order.model.OrderRevenueDaily;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.order.model.PaymentStatus;
+import com.kpabk.kpabk_connect.order.repository.OrderRevenueDailyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Several transactions write the first delta of the same, not yet existing bucket and commit together. Each must
+ * either create the bucket row or add to the row a concurrent writer just created; none may fail or be lost. The
+ * bucket row is written in the writer's own transaction, so it goes away when that transaction rolls back.
+ */
+class OrderRevenueRollupConcurrencyTest extends OrderServiceTestSupport {
+
+    private static final int WRITERS = 8;
+    private static final Instant CREATED_AT = Instant.parse("2020-02-29T10:15:00Z");
+
+    @Autowired
+    private OrderRevenueRollupService rollupService;
+
+    @Autowired
+    private OrderRevenueDailyRepository rollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentFirstWritesToOneBucketAllCount() throws Exception {
+        Long outletId = newOutlet();
+        Order order = pendingOrder(outletId);
+
+        // Every writer waits inside its transaction, so all of them reach the pre-commit upsert together
+        CyclicBarrier beforeCommit = new CyclicBarrier(WRITERS);
+        ExecutorService threads = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> work = new ArrayList<>();
+        try {
+            for (int t = 0; t < WRITERS; t++) {
+                work.add(threads.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                    rollupService.recordChange(order, null, null);
+                    try {
+                        beforeCommit.await(30, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })));
+            }
+            for (Future<?> future : work) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        List<OrderRevenueDaily> buckets = bucketsOf(outletId);
+        assertThat(buckets).hasSize(1);
+        assertThat(buckets.get(0).getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(buckets.get(0).getPaymentStatus()).isEqualTo(PaymentStatus.UNPAID);
+        assertThat(buckets.get(0).getOrderCount()).isEqualTo(WRITERS);
+        assertThat(buckets.get(0).getTotalAmount()).isEqualByComparingTo(new BigDecimal("100.00"));
+    }
+
+    @Test
+    void insertedBucketRollsBackWithTheOrderTransaction() {
+        Long outletId = newOutlet();
+        Order order = pendingOrder(outletId);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            rollupService.recordChange(order, null, null);
+            // Registered after the rollup's own hook, so it fails the commit once the bucket row is written
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("commit refused");
+                }
+            });
+        })).hasMessage("commit refused");
+
+        assertThat(bucketsOf(outletId)).isEmpty();
+    }
+
+    private static Order pendingOrder(Long outletId) {
+        return Order.builder()
+                .outletId(outletId)
+                .createdAt(CREATED_AT)
+                .totalAmount(new BigDecimal("12.50"))
+                .status(OrderStatus.PENDING)
+                .paymentStatus(PaymentStatus.UNPAID)
+                .build();
+    }
+
+    private List<OrderRevenueDaily> bucketsOf(Long outletId) {
+        return rollupRepository.findByDay(LocalDate.ofInstant(CREATED_AT, ZoneOffset.UTC)).stream()
+                .filter(row -> row.getOutletId().equals(outletId))
+                .toList();
+    }
+}
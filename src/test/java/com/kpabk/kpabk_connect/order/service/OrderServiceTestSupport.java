@@ -0,0 +1,99 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.dto.CreateOrderRequest;
+import com.kpabk.kpabk_connect.order.dto.OrderItemRequest;
+import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.product.model.Category;
+import com.kpabk.kpabk_connect.product.model.OutletProduct;
+import com.kpabk.kpabk_connect.product.model.Product;
+import com.kpabk.kpabk_connect.product.model.ProductType;
+import com.kpabk.kpabk_connect.product.model.ProductUnit;
+import com.kpabk.kpabk_connect.product.repository.CategoryRepository;
+import com.kpabk.kpabk_connect.product.repository.OutletProductRepository;
+import com.kpabk.kpabk_connect.product.repository.ProductRepository;
+import com.kpabk.kpabk_connect.user.model.Outlet;
+import com.kpabk.kpabk_connect.user.repository.OutletRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shared setup for order service tests against the full application on in-memory H2. Every test creates its own
+ * outlet and products, so tests sharing the cached context do not see each other's orders. Background jobs that
+ * would move or cancel test orders are switched off.
+ */
+@SpringBootTest(properties = {
+        "order.archive.enabled=false",
+        "order.auto-cancel.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.kpabk.kpabk_connect.order.service.StatementCounter"
+})
+abstract class OrderServiceTestSupport {
+
+    @Autowired
+    protected OrderService orderService;
+
+    @Autowired
+    protected OutletRepository outletRepository;
+
+    @Autowired
+    protected CategoryRepository categoryRepository;
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @Autowired
+    protected OutletProductRepository outletProductRepository;
+
+    protected Long newOutlet() {
+        String name = "Test Outlet " + UUID.randomUUID();
+        return outletRepository.save(Outlet.builder()
+                .outletName(name)
+                .ownerName("Test Owner")
+                .email("outlet-" + UUID.randomUUID() + "@kpabk.local")
+                .isActive(true)
+                .build()).getId();
+    }
+
+    protected List<UUID> newProducts(int count, String price) {
+        Category category = categoryRepository.save(Category.builder()
+                .name("Test Category " + UUID.randomUUID())
+                .isActive(true)
+                .build());
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(productRepository.save(Product.builder()
+                    .name("Test Product " + i + " " + UUID.randomUUID())
+                    .basePrice(new BigDecimal(price))
+                    .productType(ProductType.VEG)
+                    .unit(ProductUnit.PCS)
+                    .category(category)
+                    .isActive(true)
+                    .build()).getId());
+        }
+        return ids;
+    }
+
+    /** Maps the product to the outlet with tracked stock. */
+    protected void stock(Long outletId, UUID productId, int quantity) {
+        outletProductRepository.save(OutletProduct.builder()
+                .outletId(outletId)
+                .product(productRepository.getReferenceById(productId))
+                .stockQuantity(quantity)
+                .build());
+    }
+
+    protected OrderResponse placeOrder(Long outletId, List<UUID> productIds, int quantity) {
+        return orderService.placeOrder(CreateOrderRequest.builder()
+                .outletId(outletId)
+                .customerId(42L)
+                .items(productIds.stream()
+                        .map(id -> OrderItemRequest.builder().productId(id).quantity(quantity).build())
+                        .toList())
+                .build());
+    }
+}
@@ -0,0 +1,127 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.dto.OrderResponse;
+import com.kpabk.kpabk_connect.order.exception.InvalidOrderStateException;
+import com.kpabk.kpabk_connect.order.exception.OutOfStockException;
+import com.kpabk.kpabk_connect.order.model.OrderStatus;
+import com.kpabk.kpabk_connect.product.model.OutletProduct;
+import com.kpabk.kpabk_connect.product.repository.StockReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStockReservationTest extends OrderServiceTestSupport {
+
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 15;
+    private static final int STOCK = 100;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Test
+    void manyThreadsOrderingOnePopularProductSellExactlyTheStock() throws Exception {
+        Long outletId = newOutlet();
+        UUID product = newProducts(1, "20.00").get(0);
+        stock(outletId, product, STOCK);
+
+        AtomicInteger outOfStock = new AtomicInteger();
+        ConcurrentLinkedQueue<UUID> placed = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> work = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                work.add(threads.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        try {
+                            placed.add(placeOrder(outletId, List.of(product), 1).getId());
+                        } catch (OutOfStockException e) {
+                            outOfStock.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : work) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        assertThat(placed).hasSize(STOCK);
+        assertThat(outOfStock.get()).isEqualTo(THREADS * ORDERS_PER_THREAD - STOCK);
+        assertThat(stockOf(outletId, product)).isZero();
+        assertThat(stockReservationRepository.findByOrderIdIn(placed)).hasSize(STOCK);
+    }
+
+    @Test
+    void shortLineRollsBackTheWholeOrder() {
+        Long outletId = newOutlet();
+        List<UUID> products = newProducts(2, "5.00");
+        stock(outletId, products.get(0), 10);
+        stock(outletId, products.get(1), 1);
+
+        assertThatThrownBy(() -> placeOrder(outletId, products, 2))
+                .isInstanceOf(OutOfStockException.class);
+
+        assertThat(stockOf(outletId, products.get(0))).isEqualTo(10);
+        assertThat(stockOf(outletId, products.get(1))).isEqualTo(1);
+    }
+
+    @Test
+    void cancellingReleasesTheReservedQuantityOnlyOnce() {
+        Long outletId = newOutlet();
+        List<UUID> products = newProducts(2, "5.00");
+        stock(outletId, products.get(0), 10);
+        // The second product is not tracked and must stay that way
+        OrderResponse order = placeOrder(outletId, products, 3);
+        assertThat(stockOf(outletId, products.get(0))).isEqualTo(7);
+
+        orderService.updateStatus(order.getId(), outletId, OrderStatus.CANCELLED);
+        assertThat(stockOf(outletId, products.get(0))).isEqualTo(10);
+
+        assertThatThrownBy(() -> orderService.updateStatus(order.getId(), outletId, OrderStatus.CANCELLED))
+                .isInstanceOf(InvalidOrderStateException.class);
+        assertThat(orderService.bulkUpdateStatus(List.of(order.getId()), outletId, OrderStatus.CANCELLED)
+                .getUpdatedCount()).isZero();
+        assertThat(stockOf(outletId, products.get(0))).isEqualTo(10);
+        assertThat(outletProductRepository.findByOutletIdAndProductId(outletId, products.get(1))).isEmpty();
+    }
+
+    @Test
+    void restockBetweenPlacementAndCancellationIsNotInflated() {
+        Long outletId = newOutlet();
+        UUID product = newProducts(1, "5.00").get(0);
+        stock(outletId, product, 4);
+        OrderResponse order = placeOrder(outletId, List.of(product), 4);
+
+        // Stock counted again by the outlet while the order is open
+        OutletProduct row = outletProductRepository.findByOutletIdAndProductId(outletId, product).orElseThrow();
+        row.setStockQuantity(20);
+        outletProductRepository.save(row);
+
+        orderService.bulkUpdateStatus(List.of(order.getId(), order.getId()), outletId, OrderStatus.CANCELLED);
+        assertThat(stockOf(outletId, product)).isEqualTo(24);
+        assertThat(stockReservationRepository.findByOrderIdIn(List.of(order.getId()))).isEmpty();
+    }
+
+    private int stockOf(Long outletId, UUID productId) {
+        return outletProductRepository.findByOutletIdAndProductId(outletId, productId).orElseThrow().getStockQuantity();
+    }
+}
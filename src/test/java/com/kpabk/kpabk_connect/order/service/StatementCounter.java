@@ -0,0 +1,42 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so background jobs sharing the
+ * application context do not disturb the numbers. Registered through
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = COUNTS.get();
+        counts.total++;
+        if (sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+            counts.selects++;
+        }
+        return sql;
+    }
+
+    static void reset() {
+        COUNTS.set(new Counts());
+    }
+
+    static int selects() {
+        return COUNTS.get().selects;
+    }
+
+    static int total() {
+        return COUNTS.get().total;
+    }
+
+    private static final class Counts {
+        private int selects;
+        private int total;
+    }
+}
@@ -0,0 +1,100 @@
+package com.kpabk.kpabk_connect.order.service;
+
+import com.kpabk.kpabk_connect.order.config.OrderNumberProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeSequenceOrderNumberGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 250_000;
+
+    @Test
+    void millionsOfNumbersFromManyThreadsAreUniqueAndIncreasingPerThread() throws Exception {
+        TimeSequenceOrderNumberGenerator generator = generator(7);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(threads.submit(() -> {
+                    long[] ids = new long[PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            long[] all = new long[THREADS * PER_THREAD];
+            int offset = 0;
+            for (Future<long[]> result : results) {
+                long[] ids = result.get(60, TimeUnit.SECONDS);
+                for (int i = 1; i < ids.length; i++) {
+                    assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+                System.arraycopy(ids, 0, all, offset, ids.length);
+                offset += ids.length;
+            }
+
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                if (all[i] == all[i - 1]) {
+                    throw new AssertionError("duplicate id " + all[i]);
+                }
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void nodesNeverCollideWithinTheSameMillisecond() {
+        TimeSequenceOrderNumberGenerator first = generator(1);
+        TimeSequenceOrderNumberGenerator second = generator(2);
+        long[] ids = new long[20_000];
+        for (int i = 0; i < ids.length; i += 2) {
+            ids[i] = first.nextId();
+            ids[i + 1] = second.nextId();
+        }
+        assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+    }
+
+    @Test
+    void formatsAsPrefixAndThirteenCrockfordCharacters() {
+        TimeSequenceOrderNumberGenerator generator = generator(1023);
+        String previous = "";
+        for (int i = 0; i < 10_000; i++) {
+            String number = generator.nextOrderNumber();
+            assertThat(number).matches("ORD-[0-9A-HJKMNP-TV-Z]{13}");
+            assertThat(number).isGreaterThan(previous);
+            previous = number;
+        }
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTenBits() {
+        assertThatThrownBy(() -> generator(1024))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("order.number.node-id");
+    }
+
+    private static TimeSequenceOrderNumberGenerator generator(int nodeId) {
+        OrderNumberProperties properties = new OrderNumberProperties();
+        properties.setNodeId(nodeId);
+        return new TimeSequenceOrderNumberGenerator(properties);
+    }
+}
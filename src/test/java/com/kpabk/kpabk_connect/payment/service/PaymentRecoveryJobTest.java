@@ -0,0 +1,103 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import com.kpabk.kpabk_connect.common.lease.LeaseService;
+import com.kpabk.kpabk_connect.payment.config.PaymentRecoveryProperties;
+import com.kpabk.kpabk_connect.payment.exception.PaymentGatewayUnavailableException;
+import com.kpabk.kpabk_connect.payment.model.Payment;
+import com.kpabk.kpabk_connect.payment.model.PaymentStatus;
+import com.kpabk.kpabk_connect.payment.port.PaymentGatewayPort;
+import com.kpabk.kpabk_connect.payment.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A refund claim nobody confirmed is only released when the gateway says there is no refund; an unanswered lookup
+ * must never put the payment back to SUCCESS, where it could be refunded a second time.
+ */
+class PaymentRecoveryJobTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentStateService paymentStateService = mock(PaymentStateService.class);
+    private final PaymentGatewayPort gateway = mock(PaymentGatewayPort.class);
+    private final LeaseService leaseService = mock(LeaseService.class);
+    private final PaymentRecoveryJob job = new PaymentRecoveryJob(paymentRepository, paymentStateService, gateway,
+            new PaymentRecoveryProperties(), leaseService, mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void holdTheLease() {
+        when(leaseService.tryAcquire(anyString(), any(Duration.class))).thenReturn(true);
+    }
+
+    @Test
+    void refundFoundAtTheGatewayCompletesThePayment() {
+        Payment payment = stale(PaymentStatus.REFUND_PENDING);
+        when(gateway.findRefundIds("pay_1")).thenReturn(List.of("rfnd_1"));
+
+        job.recover();
+
+        verify(paymentStateService).confirmRefund(payment.getId(), PaymentStatus.REFUND_PENDING);
+        verify(paymentStateService, never()).releaseUnconfirmedRefund(any(), any());
+        verify(paymentStateService, never()).markRefundForReview(any());
+    }
+
+    @Test
+    void noRefundAtTheGatewayMakesThePaymentRefundableAgain() {
+        Payment payment = stale(PaymentStatus.REFUND_PENDING);
+        when(gateway.findRefundIds("pay_1")).thenReturn(List.of());
+
+        job.recover();
+
+        verify(paymentStateService).releaseUnconfirmedRefund(payment.getId(), PaymentStatus.REFUND_PENDING);
+        verify(paymentStateService, never()).confirmRefund(any(), any());
+    }
+
+    @Test
+    void failedLookupMovesThePaymentToReviewInsteadOfSuccess() {
+        Payment payment = stale(PaymentStatus.REFUND_PENDING);
+        when(gateway.findRefundIds("pay_1")).thenThrow(new PaymentGatewayUnavailableException("circuit open"));
+
+        job.recover();
+
+        verify(paymentStateService).markRefundForReview(payment.getId());
+        verify(paymentStateService, never()).releaseUnconfirmedRefund(any(), any());
+        verify(paymentStateService, never()).confirmRefund(any(), any());
+    }
+
+    @Test
+    void reviewPaymentStaysUntilTheGatewayAnswers() {
+        Payment payment = stale(PaymentStatus.REFUND_REVIEW);
+        when(gateway.findRefundIds("pay_1"))
+                .thenThrow(new PaymentGatewayUnavailableException("timeout"))
+                .thenReturn(List.of());
+
+        job.recover();
+        verifyNoInteractions(paymentStateService);
+
+        job.recover();
+        verify(paymentStateService).releaseUnconfirmedRefund(payment.getId(), PaymentStatus.REFUND_REVIEW);
+    }
+
+    private Payment stale(PaymentStatus status) {
+        Payment payment = Payment.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID())
+                .razorpayPaymentId("pay_1")
+                .status(status)
+                .build();
+        when(paymentRepository.findStale(any(), any(), any())).thenReturn(List.of(payment));
+        return payment;
+    }
+}
@@ -0,0 +1,307 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import com.kpabk.kpabk_connect.payment.config.PaymentGatewayResilienceProperties;
+import com.kpabk.kpabk_connect.payment.exception.PaymentGatewayNotConfiguredException;
+import com.kpabk.kpabk_connect.payment.exception.PaymentGatewayTimeoutException;
+import com.kpabk.kpabk_connect.payment.exception.PaymentGatewayUnavailableException;
+import com.kpabk.kpabk_connect.payment.exception.PaymentValidationException;
+import com.kpabk.kpabk_connect.payment.port.PaymentGatewayPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientPaymentGatewayAdapterTest {
+
+    private final FakeGateway gateway = new FakeGateway();
+    private final AtomicLong clock = new AtomicLong();
+    private ResilientPaymentGatewayAdapter adapter;
+
+    @AfterEach
+    void tearDown() {
+        gateway.releaseAll();
+        if (adapter != null) {
+            adapter.shutdown();
+        }
+    }
+
+    @Test
+    void returnsTheGatewayAnswerAndCountsSuccess() {
+        adapter = adapter(properties());
+
+        assertThat(adapter.createGatewayOrder(100, "INR", "r1")).isEqualTo("order_1");
+        assertThat(adapter.createRefund("pay_1", null)).isEqualTo("refund_2");
+
+        awaitInFlight(0);
+        ResilientPaymentGatewayAdapter.GatewayStats stats = adapter.stats();
+        assertThat(stats.circuitState()).isEqualTo("CLOSED");
+        assertThat(stats.outcomes().get("CREATE_ORDER").get("SUCCESS")).isEqualTo(1);
+        assertThat(stats.outcomes().get("REFUND").get("SUCCESS")).isEqualTo(1);
+    }
+
+    @Test
+    void slowCallTimesOutAndKeepsItsPermitUntilTheGatewayAnswers() {
+        PaymentGatewayResilienceProperties properties = properties();
+        properties.setCreateOrderTimeout(Duration.ofMillis(50));
+        adapter = adapter(properties);
+        gateway.block();
+
+        assertThatThrownBy(() -> adapter.createGatewayOrder(100, "INR", "r1"))
+                .isInstanceOf(PaymentGatewayTimeoutException.class)
+                .hasMessageContaining("timed out after 50 ms");
+        assertThat(adapter.stats().callsInFlight()).isEqualTo(1);
+        assertThat(adapter.stats().outcomes().get("CREATE_ORDER").get("TIMEOUT")).isEqualTo(1);
+
+        gateway.releaseAll();
+        awaitInFlight(0);
+    }
+
+    @Test
+    void rejectsCallsBeyondTheBulkheadWithoutCallingTheGateway() throws Exception {
+        PaymentGatewayResilienceProperties properties = properties();
+        properties.setMaxConcurrentCalls(2);
+        adapter = adapter(properties);
+        gateway.block();
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = callers.submit(() -> adapter.createGatewayOrder(100, "INR", "r1"));
+            Future<String> second = callers.submit(() -> adapter.createGatewayOrder(100, "INR", "r2"));
+            // The permit is taken before the call reaches the gateway, so wait for both to be blocked inside it
+            awaitGatewayCalls(2);
+            awaitInFlight(2);
+
+            assertThatThrownBy(() -> adapter.createGatewayOrder(100, "INR", "r3"))
+                    .isInstanceOf(PaymentGatewayUnavailableException.class)
+                    .hasMessage("Too many payment gateway calls in flight");
+            assertThat(gateway.calls.get()).isEqualTo(2);
+            assertThat(adapter.stats().outcomes().get("CREATE_ORDER").get("BULKHEAD_FULL")).isEqualTo(1);
+            assertThat(adapter.stats().circuitState()).isEqualTo("CLOSED");
+
+            gateway.releaseAll();
+            assertThat(first.get(5, TimeUnit.SECONDS)).startsWith("order_");
+            assertThat(second.get(5, TimeUnit.SECONDS)).startsWith("order_");
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndShortCircuits() {
+        adapter = adapter(properties());
+        gateway.failWith(new RuntimeException("connection reset"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> adapter.createGatewayOrder(100, "INR", "r"))
+                    .isInstanceOf(PaymentGatewayUnavailableException.class)
+                    .hasMessageContaining("connection reset");
+        }
+        assertThat(adapter.stats().circuitState()).isEqualTo("OPEN");
+
+        assertThatThrownBy(() -> adapter.createRefund("pay_1", null))
+                .isInstanceOf(PaymentGatewayUnavailableException.class)
+                .hasMessage("Payment gateway circuit is open");
+        assertThat(gateway.calls.get()).isEqualTo(3);
+        assertThat(adapter.stats().outcomes().get("REFUND").get("SHORT_CIRCUITED")).isEqualTo(1);
+    }
+
+    @Test
+    void timeoutsCountTowardsOpeningTheCircuit() {
+        PaymentGatewayResilienceProperties properties = properties();
+        properties.setCreateOrderTimeout(Duration.ofMillis(20));
+        adapter = adapter(properties);
+        gateway.block();
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> adapter.createGatewayOrder(100, "INR", "r"))
+                    .isInstanceOf(PaymentGatewayTimeoutException.class);
+        }
+        assertThat(adapter.stats().circuitState()).isEqualTo("OPEN");
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThroughAndClosesOnSuccess() throws Exception {
+        adapter = adapter(properties());
+        openCircuit();
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThat(adapter.stats().circuitState()).isEqualTo("HALF_OPEN");
+
+        gateway.succeed();
+        gateway.block();
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> probe = callers.submit(() -> adapter.createGatewayOrder(100, "INR", "probe"));
+            awaitInFlight(1);
+
+            assertThatThrownBy(() -> adapter.createGatewayOrder(100, "INR", "second"))
+                    .isInstanceOf(PaymentGatewayUnavailableException.class)
+                    .hasMessage("Payment gateway circuit is open");
+
+            gateway.releaseAll();
+            assertThat(probe.get(5, TimeUnit.SECONDS)).startsWith("order_");
+        } finally {
+            callers.shutdownNow();
+        }
+        assertThat(adapter.stats().circuitState()).isEqualTo("CLOSED");
+        assertThat(adapter.createGatewayOrder(100, "INR", "after")).startsWith("order_");
+    }
+
+    @Test
+    void failedProbeReopensTheCircuitForAnotherFullPeriod() {
+        adapter = adapter(properties());
+        openCircuit();
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThatThrownBy(() -> adapter.createGatewayOrder(100, "INR", "probe"))
+                .isInstanceOf(PaymentGatewayUnavailableException.class)
+                .hasMessageContaining("connection reset");
+        assertThat(adapter.stats().circuitState()).isEqualTo("OPEN");
+
+        clock.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertThatThrownBy(() -> adapter.createGatewayOrder(100, "INR", "too early"))
+                .hasMessage("Payment gateway circuit is open");
+        assertThat(gateway.calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    void gatewayRejectionsPassThroughAndDoNotOpenTheCircuit() {
+        adapter = adapter(properties());
+        gateway.failWith(new PaymentValidationException("amount too small"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> adapter.createGatewayOrder(1, "INR", "r"))
+                    .isInstanceOf(PaymentValidationException.class);
+        }
+        assertThat(adapter.stats().circuitState()).isEqualTo("CLOSED");
+        assertThat(adapter.stats().outcomes().get("CREATE_ORDER").get("REJECTED_BY_GATEWAY")).isEqualTo(5);
+    }
+
+    @Test
+    void missingConfigurationPassesThroughWithoutTouchingTheCircuit() {
+        adapter = adapter(properties());
+        gateway.failWith(new PaymentGatewayNotConfiguredException("Payment gateway not configured"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> adapter.createGatewayOrder(100, "INR", "r"))
+                    .isInstanceOf(PaymentGatewayNotConfiguredException.class);
+        }
+        assertThat(adapter.stats().circuitState()).isEqualTo("CLOSED");
+        assertThat(adapter.stats().outcomes().get("CREATE_ORDER").get("NOT_CONFIGURED")).isEqualTo(5);
+    }
+
+    private void openCircuit() {
+        gateway.failWith(new RuntimeException("connection reset"));
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> adapter.createGatewayOrder(100, "INR", "r"))
+                    .isInstanceOf(PaymentGatewayUnavailableException.class);
+        }
+        assertThat(adapter.stats().circuitState()).isEqualTo("OPEN");
+    }
+
+    private ResilientPaymentGatewayAdapter adapter(PaymentGatewayResilienceProperties properties) {
+        return new ResilientPaymentGatewayAdapter(gateway, properties, clock::get);
+    }
+
+    private static PaymentGatewayResilienceProperties properties() {
+        PaymentGatewayResilienceProperties properties = new PaymentGatewayResilienceProperties();
+        properties.setCreateOrderTimeout(Duration.ofSeconds(5));
+        properties.setRefundTimeout(Duration.ofSeconds(5));
+        properties.setMaxConcurrentCalls(4);
+        properties.setFailureThreshold(3);
+        properties.setOpenDuration(Duration.ofSeconds(30));
+        return properties;
+    }
+
+    private void awaitInFlight(int expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (adapter.stats().callsInFlight() != expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("expected " + expected + " calls in flight, got "
+                        + adapter.stats().callsInFlight());
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void awaitGatewayCalls(int expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gateway.calls.get() != expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("expected " + expected + " gateway calls, got " + gateway.calls.get());
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /** In-process gateway: answers, fails, or blocks until released, counting the calls that reached it. */
+    private static final class FakeGateway implements PaymentGatewayPort {
+
+        final AtomicInteger calls = new AtomicInteger();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void releaseAll() {
+            gate.countDown();
+        }
+
+        void failWith(RuntimeException e) {
+            failure.set(e);
+        }
+
+        void succeed() {
+            failure.set(null);
+        }
+
+        @Override
+        public String createGatewayOrder(long amountPaise, String currency, String receipt) {
+            return answer("order_");
+        }
+
+        @Override
+        public boolean verifyWebhookSignature(String body, String signature) {
+            return true;
+        }
+
+        @Override
+        public String createRefund(String razorpayPaymentId, Long amountPaise) {
+            return answer("refund_");
+        }
+
+        @Override
+        public List<String> findRefundIds(String razorpayPaymentId) {
+            return List.of(answer("refund_"));
+        }
+
+        private String answer(String prefix) {
+            int call = calls.incrementAndGet();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            RuntimeException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+            return prefix + call;
+        }
+    }
+}
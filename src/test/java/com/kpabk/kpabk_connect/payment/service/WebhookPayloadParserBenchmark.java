@@ -0,0 +1,252 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation per webhook of {@link WebhookPayloadParser} against the readTree path it replaced:
+ * a full tree, the extractPaymentId/extractOrderId/extractMethod walks and, when there is no payment id,
+ * {@code root.toString()} for the fallback key. Run with the GC profiler so {@code gc.alloc.rate.norm} shows the
+ * bytes allocated per parse.
+ * <p>
+ * Not part of {@code mvn test}. Run with:
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.kpabk.kpabk_connect.payment.service.WebhookPayloadParserBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebhookPayloadParserBenchmark {
+
+    private static final String PAYMENT_CAPTURED = """
+            {
+              "entity": "event",
+              "account_id": "acc_BFQ7uQEaa7j2z7",
+              "event": "payment.captured",
+              "contains": ["payment"],
+              "payload": {
+                "payment": {
+                  "entity": {
+                    "id": "pay_DESlfW9H8K9uqM",
+                    "entity": "payment",
+                    "amount": 24900,
+                    "currency": "INR",
+                    "base_amount": 24900,
+                    "status": "captured",
+                    "order_id": "order_DESlLckIVRkHWj",
+                    "invoice_id": null,
+                    "international": false,
+                    "method": "card",
+                    "amount_refunded": 0,
+                    "amount_transferred": 0,
+                    "refund_status": null,
+                    "captured": true,
+                    "description": "Order KPABK-20240917-0042",
+                    "card_id": "card_DESlfX8c7n1H6z",
+                    "card": {
+                      "id": "card_DESlfX8c7n1H6z",
+                      "entity": "card",
+                      "name": "Gaurav Kumar",
+                      "last4": "1111",
+                      "network": "Visa",
+                      "type": "credit",
+                      "issuer": null,
+                      "international": false,
+                      "emi": false,
+                      "sub_type": "consumer",
+                      "token_iin": null
+                    },
+                    "bank": null,
+                    "wallet": null,
+                    "vpa": null,
+                    "email": "gaurav.kumar@example.com",
+                    "contact": "+919876543210",
+                    "customer_id": "cust_DESlLckIVRkHWk",
+                    "token_id": null,
+                    "notes": {"outlet": "Koramangala", "order_number": "KPABK-20240917-0042", "channel": "app"},
+                    "fee": 588,
+                    "tax": 90,
+                    "error_code": null,
+                    "error_description": null,
+                    "error_source": null,
+                    "error_step": null,
+                    "error_reason": null,
+                    "acquirer_data": {"auth_code": "828553", "arn": "74836385000045683960052", "rrn": "316512345678"},
+                    "created_at": 1567674599
+                  }
+                }
+              },
+              "created_at": 1567674606
+            }""";
+
+    private static final String REFUND_PROCESSED = """
+            {
+              "entity": "event",
+              "account_id": "acc_BFQ7uQEaa7j2z7",
+              "event": "refund.processed",
+              "contains": ["refund", "payment"],
+              "payload": {
+                "refund": {
+                  "entity": {
+                    "id": "rfnd_FP8QHiV938haTz",
+                    "entity": "refund",
+                    "amount": 24900,
+                    "currency": "INR",
+                    "payment_id": "pay_FP8QCTiHmx3Wh1",
+                    "notes": {"reason": "order cancelled"},
+                    "receipt": null,
+                    "acquirer_data": {"arn": "10000000000000"},
+                    "created_at": 1600241009,
+                    "batch_id": null,
+                    "status": "processed",
+                    "speed_processed": "normal",
+                    "speed_requested": "normal"
+                  }
+                },
+                "payment": {
+                  "entity": {
+                    "id": "pay_FP8QCTiHmx3Wh1",
+                    "entity": "payment",
+                    "amount": 24900,
+                    "currency": "INR",
+                    "status": "refunded",
+                    "order_id": "order_FP8Q8oWXfUA2wS",
+                    "method": "upi",
+                    "amount_refunded": 24900,
+                    "refund_status": "full",
+                    "captured": true,
+                    "vpa": "gaurav.kumar@exampleupi",
+                    "email": "gaurav.kumar@example.com",
+                    "contact": "+919876543210",
+                    "notes": [],
+                    "fee": 588,
+                    "tax": 90,
+                    "acquirer_data": {"rrn": "026012345678", "upi_transaction_id": "8E4C5A5D6E7F"},
+                    "created_at": 1600240933
+                  }
+                }
+              },
+              "created_at": 1600241009
+            }""";
+
+    /** No payment id anywhere, so the tree path re-serializes the whole body for its key. */
+    private static final String SETTLEMENT_PROCESSED = """
+            {
+              "entity": "event",
+              "account_id": "acc_BFQ7uQEaa7j2z7",
+              "event": "settlement.processed",
+              "contains": ["settlement"],
+              "payload": {
+                "settlement": {
+                  "entity": {
+                    "id": "setl_DGlQ1Rj8os78Ec",
+                    "entity": "settlement",
+                    "amount": 9973635,
+                    "status": "processed",
+                    "fees": 471699,
+                    "tax": 42070,
+                    "utr": "1568176960vxp0rj",
+                    "created_at": 1568176960
+                  }
+                }
+              },
+              "created_at": 1568176961
+            }""";
+
+    @Param({"payment.captured", "refund.processed", "settlement.processed"})
+    public String event;
+
+    private String body;
+    private ObjectMapper objectMapper;
+    private WebhookPayloadParser parser;
+
+    @Setup
+    public void setUp() {
+        body = switch (event) {
+            case "payment.captured" -> PAYMENT_CAPTURED;
+            case "refund.processed" -> REFUND_PROCESSED;
+            default -> SETTLEMENT_PROCESSED;
+        };
+        objectMapper = new ObjectMapper();
+        parser = new WebhookPayloadParser(objectMapper);
+    }
+
+    @Benchmark
+    public WebhookPayload streaming() throws IOException {
+        return parser.parse(body);
+    }
+
+    @Benchmark
+    public void readTree(Blackhole blackhole) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        JsonNode eventNode = root.get("event");
+        blackhole.consume(eventNode != null ? eventNode.asText() : null);
+        JsonNode payload = root.get("payload");
+        String paymentId = extractPaymentId(payload);
+        blackhole.consume(paymentId != null ? paymentId : root.toString().hashCode() + "_");
+        blackhole.consume(extractOrderId(payload));
+        blackhole.consume(extractMethod(payload));
+        JsonNode refundEntity = payload.has("refund") ? payload.get("refund").get("entity") : null;
+        blackhole.consume(refundEntity != null ? text(refundEntity.get("payment_id")) : null);
+    }
+
+    private static String extractPaymentId(JsonNode payload) {
+        if (!payload.has("payment")) return null;
+        JsonNode entity = payload.get("payment").get("entity");
+        if (entity == null || !entity.has("id")) return null;
+        return text(entity.get("id"));
+    }
+
+    private static String extractOrderId(JsonNode payload) {
+        if (!payload.has("payment")) return null;
+        JsonNode entity = payload.get("payment").get("entity");
+        if (entity == null || !entity.has("order_id")) return null;
+        return text(entity.get("order_id"));
+    }
+
+    private static String extractMethod(JsonNode payload) {
+        if (!payload.has("payment")) return null;
+        JsonNode entity = payload.get("payment").get("entity");
+        if (entity == null || !entity.has("method")) return null;
+        return text(entity.get("method"));
+    }
+
+    private static String text(JsonNode node) {
+        return (node != null && !node.isNull()) ? node.asText() : null;
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(WebhookPayloadParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,141 @@
+package com.kpabk.kpabk_connect.payment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookPayloadParserTest {
+
+    private static final String PAYMENT_CAPTURED = """
+            {
+              "entity": "event",
+              "account_id": "acc_BFQ7uQEaa7j2z7",
+              "event": "payment.captured",
+              "contains": ["payment"],
+              "payload": {
+                "payment": {
+                  "entity": {
+                    "id": "pay_DESlfW9H8K9uqM",
+                    "entity": "payment",
+                    "amount": 100,
+                    "currency": "INR",
+                    "status": "captured",
+                    "order_id": "order_DESlLckIVRkHWj",
+                    "invoice_id": null,
+                    "international": false,
+                    "method": "card",
+                    "card": {"id": "card_DESlfX8c7n1H6z", "network": "Visa", "last4": "1111", "issuer": null},
+                    "notes": {"payment": {"id": "pay_fromNotes"}, "order_id": "order_fromNotes"},
+                    "acquirer_data": {"auth_code": "828553", "id": "acq_ignored"},
+                    "fee": 2,
+                    "tax": 0,
+                    "created_at": 1567674599
+                  }
+                }
+              },
+              "created_at": 1567674606
+            }""";
+
+    private static final String REFUND_PROCESSED = """
+            {
+              "entity": "event",
+              "event": "refund.processed",
+              "contains": ["refund", "payment"],
+              "payload": {
+                "refund": {
+                  "entity": {
+                    "id": "rfnd_FP8QHiV938haTz",
+                    "amount": 500100,
+                    "payment_id": "pay_FP8QCTiHmx3Wh1",
+                    "notes": {"payment_id": "pay_fromNotes"},
+                    "status": "processed"
+                  }
+                },
+                "payment": {
+                  "entity": {
+                    "id": "pay_FP8QCTiHmx3Wh1",
+                    "order_id": null,
+                    "method": "upi",
+                    "upi": {"vpa": "gaurav.kumar@exampleupi"}
+                  }
+                }
+              },
+              "created_at": 1600241009
+            }""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WebhookPayloadParser parser = new WebhookPayloadParser(objectMapper);
+
+    @Test
+    void readsPaymentFieldsAndIgnoresLookalikesInNestedObjects() throws IOException {
+        WebhookPayload payload = parser.parse(PAYMENT_CAPTURED);
+
+        assertThat(payload).isEqualTo(new WebhookPayload(
+                "payment.captured", true, "pay_DESlfW9H8K9uqM", "order_DESlLckIVRkHWj", "card", null));
+    }
+
+    @Test
+    void readsRefundPaymentIdAndTreatsJsonNullAsAbsent() throws IOException {
+        WebhookPayload payload = parser.parse(REFUND_PROCESSED);
+
+        assertThat(payload).isEqualTo(new WebhookPayload(
+                "refund.processed", true, "pay_FP8QCTiHmx3Wh1", null, "upi", "pay_FP8QCTiHmx3Wh1"));
+    }
+
+    @Test
+    void fallsBackToTheOlderPaymentIdShape() throws IOException {
+        WebhookPayload payload = parser.parse("""
+                {"payload": {"payment": {"id": "pay_legacy"}}, "event": "payment.failed"}""");
+
+        assertThat(payload).isEqualTo(new WebhookPayload("payment.failed", true, "pay_legacy", null, null, null));
+    }
+
+    @Test
+    void reportsAMissingPayload() throws IOException {
+        assertThat(parser.parse("{\"event\": \"order.paid\", \"payload\": null}").hasPayload()).isFalse();
+        assertThat(parser.parse("{\"event\": \"order.paid\"}").hasPayload()).isFalse();
+    }
+
+    @Test
+    void rejectsBodiesThatAreNotJsonObjects() {
+        assertThatThrownBy(() -> parser.parse("[1, 2]")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parser.parse("{\"event\": ")).isInstanceOf(IOException.class);
+    }
+
+    /** Same answers as the former readTree path for every shape above. */
+    @Test
+    void matchesTheTreeBasedExtraction() throws IOException {
+        List<String> bodies = List.of(PAYMENT_CAPTURED, REFUND_PROCESSED,
+                "{\"payload\": {\"payment\": {\"id\": \"pay_legacy\"}}, \"event\": \"payment.failed\"}",
+                "{\"event\": 42, \"payload\": {\"payment\": {\"entity\": {\"id\": 7, \"method\": true}}}}",
+                "{\"event\": \"x\", \"payload\": {\"refund\": {\"entity\": {\"payment_id\": [\"a\"]}}}}");
+        for (String body : bodies) {
+            assertThat(parser.parse(body)).as(body).isEqualTo(fromTree(objectMapper.readTree(body)));
+        }
+    }
+
+    private static WebhookPayload fromTree(JsonNode root) {
+        JsonNode payload = root.get("payload");
+        boolean hasPayload = payload != null && payload.isObject();
+        JsonNode payment = hasPayload ? payload.path("payment") : MissingNode.getInstance();
+        JsonNode entity = payment.path("entity");
+        String paymentId = scalar(entity.path("id"));
+        if (paymentId == null) {
+            paymentId = scalar(payment.path("id"));
+        }
+        return new WebhookPayload(scalar(root.path("event")), hasPayload, paymentId,
+                scalar(entity.path("order_id")), scalar(entity.path("method")),
+                hasPayload ? scalar(payload.path("refund").path("entity").path("payment_id")) : null);
+    }
+
+    private static String scalar(JsonNode node) {
+        return node.isValueNode() && !node.isNull() ? node.asText() : null;
+    }
+}